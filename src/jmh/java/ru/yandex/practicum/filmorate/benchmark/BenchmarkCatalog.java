@@ -0,0 +1,167 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.benchmark.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.benchmark.dataset.DatasetLoader;
+import ru.yandex.practicum.filmorate.benchmark.dataset.DatasetSpec;
+import ru.yandex.practicum.filmorate.cache.CacheVersions;
+import ru.yandex.practicum.filmorate.coalescing.RequestCoalescer;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+import ru.yandex.practicum.filmorate.storage.film.*;
+import ru.yandex.practicum.filmorate.storage.genre.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.genre.GenreStorage;
+import ru.yandex.practicum.filmorate.storage.genre.InMemoryGenreStorage;
+import ru.yandex.practicum.filmorate.storage.mappers.*;
+import ru.yandex.practicum.filmorate.storage.mpa.InMemoryMpaStorage;
+import ru.yandex.practicum.filmorate.storage.mpa.MpaDbStorage;
+import ru.yandex.practicum.filmorate.storage.mpa.MpaStorage;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshotExporter;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshotService;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class BenchmarkCatalog implements AutoCloseable {
+    public static final String DB = "db";
+    public static final String MEMORY = "memory";
+    public static final String OFF_HEAP = "offheap";
+
+    private final EmbeddedDatabase database;
+    private final JdbcTemplate jdbc;
+    private final ChunkExecutor chunkExecutor;
+    private final int filmCount;
+    private final int userCount;
+
+    private final FilmDbStorage filmDbStorage;
+    private final UserDbStorage userDbStorage;
+    private final GenreDbStorage genreDbStorage;
+    private final MpaDbStorage mpaDbStorage;
+
+    private final InMemoryGenreStorage inMemoryGenreStorage = new InMemoryGenreStorage();
+    private final InMemoryMpaStorage inMemoryMpaStorage = new InMemoryMpaStorage();
+    private final InMemoryFilmStorage inMemoryFilmStorage;
+    private final InMemoryUserStorage inMemoryUserStorage;
+    private final OffHeapFilmStorage offHeapFilmStorage;
+    private final CatalogSnapshotService snapshotService;
+    private final CatalogSnapshotExporter snapshotExporter;
+
+    private BenchmarkCatalog(DatasetSpec spec) {
+        this.filmCount = spec.getFilms();
+        this.userCount = spec.getUsers();
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("bench-" + UUID.randomUUID())
+                .build();
+        jdbc = new JdbcTemplate(database);
+        DatasetGenerator generator = new DatasetGenerator(spec);
+        DatasetLoader.load(jdbc, generator);
+
+        chunkExecutor = new ChunkExecutor(2, 64);
+        filmDbStorage = new FilmDbStorage(jdbc, new FilmRowMapper(), new BatchProperties(), chunkExecutor);
+        userDbStorage = new UserDbStorage(jdbc, new UserRowMapper(), new BatchProperties(), chunkExecutor);
+        genreDbStorage = new GenreDbStorage(jdbc, new GenreRowMapper(), new BatchProperties(), chunkExecutor);
+        mpaDbStorage = new MpaDbStorage(jdbc, new MpaRowMapper());
+
+        WalProperties walProperties = new WalProperties();
+        inMemoryFilmStorage = new InMemoryFilmStorage(inMemoryGenreStorage, inMemoryMpaStorage, walProperties);
+        inMemoryUserStorage = new InMemoryUserStorage(walProperties);
+        snapshotService = new CatalogSnapshotService(inMemoryFilmStorage, inMemoryUserStorage,
+                inMemoryGenreStorage, inMemoryMpaStorage, "");
+        snapshotExporter = new CatalogSnapshotExporter(jdbc);
+        snapshotService.restore(DatasetLoader.loadCatalog(generator));
+
+        offHeapFilmStorage = new OffHeapFilmStorage(inMemoryGenreStorage, inMemoryMpaStorage);
+        for (Film film : DatasetLoader.loadCatalog(generator).getFilms()) {
+            List<Long> likes = new ArrayList<>(film.getLikes());
+            offHeapFilmStorage.createFilm(film);
+            likes.forEach(userId -> offHeapFilmStorage.addLike(film.getId(), userId));
+        }
+    }
+
+    public static BenchmarkCatalog create(int filmCount, int userCount, long seed) {
+        return create(DatasetSpec.builder()
+                .seed(seed)
+                .films(filmCount)
+                .users(userCount)
+                .build());
+    }
+
+    public static BenchmarkCatalog create(DatasetSpec spec) {
+        return new BenchmarkCatalog(spec);
+    }
+
+    public JdbcTemplate getJdbc() {
+        return jdbc;
+    }
+
+    public int getFilmCount() {
+        return filmCount;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public CatalogSnapshotService getSnapshotService() {
+        return snapshotService;
+    }
+
+    public CatalogSnapshotExporter getSnapshotExporter() {
+        return snapshotExporter;
+    }
+
+    public FilmStorage filmStorage(String kind) {
+        return switch (kind) {
+            case DB -> filmDbStorage;
+            case MEMORY -> inMemoryFilmStorage;
+            case OFF_HEAP -> offHeapFilmStorage;
+            default -> throw new IllegalArgumentException("Неизвестное хранилище: " + kind);
+        };
+    }
+
+    public UserStorage userStorage(String kind) {
+        return switch (kind) {
+            case DB -> userDbStorage;
+            case MEMORY -> inMemoryUserStorage;
+            default -> throw new IllegalArgumentException("Неизвестное хранилище: " + kind);
+        };
+    }
+
+    public GenreStorage genreStorage(String kind) {
+        return DB.equals(kind) ? genreDbStorage : inMemoryGenreStorage;
+    }
+
+    public MpaStorage mpaStorage(String kind) {
+        return DB.equals(kind) ? mpaDbStorage : inMemoryMpaStorage;
+    }
+
+    public FilmService filmService(String kind) {
+        FilmStorage filmStorage = filmStorage(kind);
+        return new FilmService(filmStorage, userStorage(DB.equals(kind) ? DB : MEMORY), genreStorage(kind),
+                mpaStorage(kind), new FilmLikeIndex(filmStorage), new CacheVersions(),
+                new RequestCoalescer());
+    }
+
+    public UserService userService(String kind) {
+        return new UserService(userStorage(kind), new FilmLikeIndex(filmStorage(kind)),
+                new RequestCoalescer());
+    }
+
+    @Override
+    public void close() {
+        chunkExecutor.destroy();
+        database.shutdown();
+    }
+}
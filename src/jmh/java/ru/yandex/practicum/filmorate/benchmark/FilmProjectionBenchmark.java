@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmProjectionBenchmark {
+    @Param({"1000", "10000"})
+    private int films;
+
+    private BenchmarkCatalog catalog;
+    private FilmStorage filmStorage;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(films, films, 42);
+        filmStorage = catalog.filmStorage(BenchmarkCatalog.DB);
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public List<FilmDto> findAllThroughFilm() {
+        return filmStorage.findAllFilms().stream()
+                .map(FilmMapper::mapToFilmDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<FilmDto> findAllAsDto() {
+        return filmStorage.findAllFilmDtos();
+    }
+
+    @Benchmark
+    public List<FilmDto> popularThroughFilm() {
+        return filmStorage.getPopularFilms(100).stream()
+                .map(FilmMapper::mapToFilmDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<FilmDto> popularAsDto() {
+        return filmStorage.getPopularFilmDtos(100);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmServiceBenchmark {
+    @Param({"1000", "10000"})
+    private int films;
+
+    @Param({BenchmarkCatalog.DB, BenchmarkCatalog.MEMORY})
+    private String storage;
+
+    private BenchmarkCatalog catalog;
+    private FilmService filmService;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(films, films, 42);
+        filmService = catalog.filmService(storage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Collection<FilmDto> getPopularFilms() {
+        return filmService.getPopularFilms(10);
+    }
+
+    @Benchmark
+    public Collection<FilmDto> findAllFilms() {
+        return filmService.findAllFilms();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmStorageBenchmark {
+    @Param({"1000", "10000"})
+    private int films;
+
+    @Param({BenchmarkCatalog.DB, BenchmarkCatalog.MEMORY, BenchmarkCatalog.OFF_HEAP})
+    private String storage;
+
+    private BenchmarkCatalog catalog;
+    private FilmStorage filmStorage;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(films, films, 42);
+        filmStorage = catalog.filmStorage(storage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Optional<Film> findFilmById() {
+        return filmStorage.findFilmById(1 + next++ % films);
+    }
+
+    @Benchmark
+    public Collection<Film> getPopularFilms() {
+        return filmStorage.getPopularFilms(10);
+    }
+
+    @Benchmark
+    public Collection<Film> findAllFilms() {
+        return filmStorage.findAllFilms();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongSetBenchmark {
+    @Param({"16", "1000", "100000"})
+    private int size;
+
+    @Param({"primitive", "boxed"})
+    private String impl;
+
+    private long[] values;
+    private long[] probes;
+    private Set<Long> set;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = random.longs(size, 1, size * 10L).toArray();
+        probes = random.longs(1024, 1, size * 10L).toArray();
+        set = build();
+    }
+
+    @Benchmark
+    public Set<Long> build() {
+        Set<Long> result = "primitive".equals(impl) ? new LongHashSet() : new HashSet<>();
+        for (long value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(probes[next++ & 1023]);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        if (set instanceof LongHashSet primitive) {
+            primitive.forEachLong(blackhole::consume);
+        } else {
+            for (Long value : set) {
+                blackhole.consume(value.longValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.UserRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.UserWithFriendsRowMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private static final String FILMS = "SELECT f.*, r.name AS rating_name FROM films f " +
+            "LEFT JOIN ratings r ON f.rating_id = r.id";
+    private static final String USERS = "SELECT * FROM users";
+    private static final String USERS_WITH_FRIENDS = "SELECT u.user_id, u.email, u.login, u.name, u.birthday, " +
+            "f.friend_id FROM users u LEFT JOIN friends f ON u.user_id = f.user_id";
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private BenchmarkCatalog catalog;
+    private List<Film> films;
+    private final FilmRowMapper filmRowMapper = new FilmRowMapper();
+    private final UserRowMapper userRowMapper = new UserRowMapper();
+    private final UserWithFriendsRowMapper userWithFriendsRowMapper = new UserWithFriendsRowMapper();
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(size, size, 42);
+        films = catalog.getSnapshotExporter().loadFromDatabase().getFilms();
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public void mapToFilmDto(Blackhole blackhole) {
+        for (Film film : films) {
+            blackhole.consume(FilmMapper.mapToFilmDto(film));
+        }
+    }
+
+    @Benchmark
+    public void scanFilms(Blackhole blackhole) {
+        catalog.getJdbc().query(FILMS, (RowCallbackHandler) rs -> blackhole.consume(rs.getLong(1)));
+    }
+
+    @Benchmark
+    public Object mapFilms() {
+        return catalog.getJdbc().query(FILMS, filmRowMapper);
+    }
+
+    @Benchmark
+    public void scanUsers(Blackhole blackhole) {
+        catalog.getJdbc().query(USERS, (RowCallbackHandler) rs -> blackhole.consume(rs.getLong(1)));
+    }
+
+    @Benchmark
+    public Object mapUsers() {
+        return catalog.getJdbc().query(USERS, userRowMapper);
+    }
+
+    @Benchmark
+    public Object mapUsersWithFriends() {
+        return catalog.getJdbc().query(USERS_WITH_FRIENDS, userWithFriendsRowMapper);
+    }
+}
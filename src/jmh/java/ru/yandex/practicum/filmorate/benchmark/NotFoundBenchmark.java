@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+    private static final String FIND_BY_ID = "SELECT film_id FROM films WHERE film_id = ?";
+    private static final RowMapper<Long> ID_MAPPER = (rs, rowNum) -> rs.getLong(1);
+
+    @Param({"1000"})
+    private int films;
+
+    @Param({BenchmarkCatalog.DB, BenchmarkCatalog.MEMORY})
+    private String storage;
+
+    private BenchmarkCatalog catalog;
+    private JdbcTemplate jdbc;
+    private FilmService filmService;
+    private long missingId;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(films, films, 42);
+        jdbc = catalog.getJdbc();
+        filmService = catalog.filmService(storage);
+        missingId = films + 1L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Optional<Long> queryForObjectMiss() {
+        try {
+            return Optional.ofNullable(jdbc.queryForObject(FIND_BY_ID, ID_MAPPER, missingId));
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Benchmark
+    public Optional<Long> queryMiss() {
+        return DataAccessUtils.optionalResult(jdbc.query(FIND_BY_ID, ID_MAPPER, missingId));
+    }
+
+    @Benchmark
+    public RuntimeException stackfulException() {
+        return new RuntimeException("Фильм с ID " + missingId + " не найден");
+    }
+
+    @Benchmark
+    public RuntimeException notFoundException() {
+        return new NotFoundException("Фильм с ID " + missingId + " не найден");
+    }
+
+    @Benchmark
+    public String serviceMiss() {
+        try {
+            return filmService.findFilmById(missingId).getName();
+        } catch (NotFoundException e) {
+            return e.getMessage();
+        }
+    }
+}
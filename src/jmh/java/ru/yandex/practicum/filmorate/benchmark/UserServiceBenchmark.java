@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.dto.user.UserDto;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"1000", "10000"})
+    private int users;
+
+    @Param({BenchmarkCatalog.DB, BenchmarkCatalog.MEMORY})
+    private String storage;
+
+    private BenchmarkCatalog catalog;
+    private UserService userService;
+    private long[] pairs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(users, users, 42);
+        userService = catalog.userService(storage);
+
+        Random random = new Random(7);
+        pairs = new long[PAIRS * 2];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = 1 + random.nextInt(users);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Collection<UserDto> getCommonFriends() {
+        int pair = (next++ & (PAIRS - 1)) << 1;
+        return userService.getCommonFriends(pairs[pair], pairs[pair + 1]);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserStorageBenchmark {
+    @Param({"1000", "10000"})
+    private int users;
+
+    @Param({BenchmarkCatalog.DB, BenchmarkCatalog.MEMORY})
+    private String storage;
+
+    private BenchmarkCatalog catalog;
+    private UserStorage userStorage;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.create(users, users, 42);
+        userStorage = catalog.userStorage(storage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Optional<User> findUserById() {
+        return userStorage.findUserById(1 + next++ % users);
+    }
+
+    @Benchmark
+    public Collection<User> findFriendsByUserId() {
+        return userStorage.findFriendsByUserId(1 + next++ % users);
+    }
+
+    @Benchmark
+    public Collection<User> findAllUsers() {
+        return userStorage.findAllUsers();
+    }
+}
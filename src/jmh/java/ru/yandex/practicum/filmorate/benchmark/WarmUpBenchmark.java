@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshotExporter;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshotService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WarmUpBenchmark {
+    @Param({"10000", "100000"})
+    private int films;
+
+    private BenchmarkCatalog catalog;
+    private CatalogSnapshotService snapshotService;
+    private CatalogSnapshotExporter snapshotExporter;
+    private Path snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        catalog = BenchmarkCatalog.create(films, films, 42);
+        snapshotService = catalog.getSnapshotService();
+        snapshotExporter = catalog.getSnapshotExporter();
+        snapshot = Files.createTempFile("catalog", ".snapshot");
+        snapshotExporter.exportFromDatabase(snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        catalog.close();
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public void restoreFromSnapshot() {
+        snapshotService.restore(snapshot);
+    }
+
+    @Benchmark
+    public void restoreFromDatabase() {
+        snapshotService.restore(snapshotExporter.loadFromDatabase());
+    }
+}
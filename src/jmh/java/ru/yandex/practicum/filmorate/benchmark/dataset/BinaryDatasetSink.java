@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class BinaryDatasetSink implements DatasetSink {
+    private static final int MAGIC = 0x464D4453;
+    private static final byte USER = 1;
+    private static final byte FILM = 2;
+    private static final byte FILM_GENRE = 3;
+    private static final byte LIKE = 4;
+    private static final byte FRIEND = 5;
+    private static final byte END = 0;
+
+    private final DataOutputStream out;
+
+    public BinaryDatasetSink(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+    }
+
+    @Override
+    public void user(long id, String email, String login, String name, LocalDate birthday) throws IOException {
+        out.writeByte(USER);
+        out.writeLong(id);
+        out.writeUTF(email);
+        out.writeUTF(login);
+        out.writeUTF(name);
+        out.writeLong(birthday.toEpochDay());
+    }
+
+    @Override
+    public void film(long id, String name, String description, LocalDate releaseDate, int duration, long ratingId)
+            throws IOException {
+        out.writeByte(FILM);
+        out.writeLong(id);
+        out.writeUTF(name);
+        out.writeUTF(description);
+        out.writeLong(releaseDate.toEpochDay());
+        out.writeInt(duration);
+        out.writeLong(ratingId);
+    }
+
+    @Override
+    public void filmGenre(long filmId, long genreId) throws IOException {
+        out.writeByte(FILM_GENRE);
+        out.writeLong(filmId);
+        out.writeLong(genreId);
+    }
+
+    @Override
+    public void like(long filmId, long userId) throws IOException {
+        out.writeByte(LIKE);
+        out.writeLong(filmId);
+        out.writeLong(userId);
+    }
+
+    @Override
+    public void friend(long userId, long friendId) throws IOException {
+        out.writeByte(FRIEND);
+        out.writeLong(userId);
+        out.writeLong(friendId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.writeByte(END);
+        out.close();
+    }
+
+    public static void replay(Path file, DatasetSink sink) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Файл " + file + " не является двоичным каталогом");
+            }
+
+            byte type;
+            while ((type = in.readByte()) != END) {
+                switch (type) {
+                    case USER -> sink.user(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(),
+                            LocalDate.ofEpochDay(in.readLong()));
+                    case FILM -> sink.film(in.readLong(), in.readUTF(), in.readUTF(),
+                            LocalDate.ofEpochDay(in.readLong()), in.readInt(), in.readLong());
+                    case FILM_GENRE -> sink.filmGenre(in.readLong(), in.readLong());
+                    case LIKE -> sink.like(in.readLong(), in.readLong());
+                    case FRIEND -> sink.friend(in.readLong(), in.readLong());
+                    default -> throw new IOException("Неизвестный тип записи " + type + " в " + file);
+                }
+            }
+        }
+        sink.close();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogSink implements DatasetSink {
+    private final List<Mpa> ratings = new ArrayList<>();
+    private final List<Genre> genres = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private final List<Film> films = new ArrayList<>();
+
+    public CatalogSink() {
+        for (int i = 0; i < DatasetGenerator.RATINGS.length; i++) {
+            Mpa mpa = new Mpa();
+            mpa.setId(i + 1L);
+            mpa.setName(DatasetGenerator.RATINGS[i]);
+            ratings.add(mpa);
+        }
+        for (int i = 0; i < DatasetGenerator.GENRES.length; i++) {
+            genres.add(new Genre(i + 1L, DatasetGenerator.GENRES[i]));
+        }
+    }
+
+    @Override
+    public void user(long id, String email, String login, String name, LocalDate birthday) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setLogin(login);
+        user.setName(name);
+        user.setBirthday(birthday);
+        users.add(user);
+    }
+
+    @Override
+    public void film(long id, String name, String description, LocalDate releaseDate, int duration, long ratingId) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName(name);
+        film.setDescription(description);
+        film.setReleaseDate(releaseDate);
+        film.setDuration(duration);
+        film.setMpa(ratings.get((int) ratingId - 1));
+        films.add(film);
+    }
+
+    @Override
+    public void filmGenre(long filmId, long genreId) {
+        films.get((int) filmId - 1).getGenres().add(genres.get((int) genreId - 1));
+    }
+
+    @Override
+    public void like(long filmId, long userId) {
+        films.get((int) filmId - 1).getLikes().add(userId);
+    }
+
+    @Override
+    public void friend(long userId, long friendId) {
+        users.get((int) userId - 1).getFriends().add(friendId);
+    }
+
+    public CatalogSnapshot getCatalog() {
+        CatalogSnapshot catalog = new CatalogSnapshot();
+        catalog.setRatings(ratings);
+        catalog.setGenres(genres);
+        catalog.setUsers(users);
+        catalog.setFilms(films);
+        return catalog;
+    }
+}
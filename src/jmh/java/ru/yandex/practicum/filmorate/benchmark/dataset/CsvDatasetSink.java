@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class CsvDatasetSink implements DatasetSink {
+    public static final String USERS = "users.csv";
+    public static final String FILMS = "films.csv";
+    public static final String FILM_GENRES = "film_genres.csv";
+    public static final String FILM_LIKES = "film_likes.csv";
+    public static final String FRIENDS = "friends.csv";
+
+    private final Writer users;
+    private final Writer films;
+    private final Writer filmGenres;
+    private final Writer likes;
+    private final Writer friends;
+
+    public CsvDatasetSink(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        users = open(directory.resolve(USERS), "USER_ID,EMAIL,LOGIN,NAME,BIRTHDAY");
+        films = open(directory.resolve(FILMS), "FILM_ID,NAME,DESCRIPTION,RELEASEDATE,DURATION,RATING_ID");
+        filmGenres = open(directory.resolve(FILM_GENRES), "FILM_ID,GENRE_ID");
+        likes = open(directory.resolve(FILM_LIKES), "FILM_ID,USER_ID");
+        friends = open(directory.resolve(FRIENDS), "USER_ID,FRIEND_ID");
+    }
+
+    @Override
+    public void user(long id, String email, String login, String name, LocalDate birthday) throws IOException {
+        users.append(Long.toString(id)).append(',').append(quote(email)).append(',').append(quote(login))
+                .append(',').append(quote(name)).append(',').append(birthday.toString()).append('\n');
+    }
+
+    @Override
+    public void film(long id, String name, String description, LocalDate releaseDate, int duration, long ratingId)
+            throws IOException {
+        films.append(Long.toString(id)).append(',').append(quote(name)).append(',').append(quote(description))
+                .append(',').append(releaseDate.toString()).append(',').append(Integer.toString(duration))
+                .append(',').append(Long.toString(ratingId)).append('\n');
+    }
+
+    @Override
+    public void filmGenre(long filmId, long genreId) throws IOException {
+        filmGenres.append(Long.toString(filmId)).append(',').append(Long.toString(genreId)).append('\n');
+    }
+
+    @Override
+    public void like(long filmId, long userId) throws IOException {
+        likes.append(Long.toString(filmId)).append(',').append(Long.toString(userId)).append('\n');
+    }
+
+    @Override
+    public void friend(long userId, long friendId) throws IOException {
+        friends.append(Long.toString(userId)).append(',').append(Long.toString(friendId)).append('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        users.close();
+        films.close();
+        filmGenres.close();
+        likes.close();
+        friends.close();
+    }
+
+    private static Writer open(Path file, String header) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(header);
+        writer.write('\n');
+        return writer;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
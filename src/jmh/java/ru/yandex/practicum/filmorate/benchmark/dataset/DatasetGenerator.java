@@ -0,0 +1,164 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+    public static final String[] RATINGS = {"G", "PG", "PG-13", "R", "NC-17"};
+    public static final String[] GENRES = {"Комедия", "Драма", "Мультфильм", "Триллер", "Документальный", "Боевик"};
+
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(1950, 1, 1);
+    private static final LocalDate FIRST_RELEASE = LocalDate.of(1930, 1, 1);
+
+    private final DatasetSpec spec;
+
+    public void generate(DatasetSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        SplittableRandom userRandom = random.split();
+        SplittableRandom filmRandom = random.split();
+        SplittableRandom likeRandom = random.split();
+        SplittableRandom friendRandom = random.split();
+
+        for (long id = 1; id <= spec.getUsers(); id++) {
+            sink.user(id, "user" + id + "@example.com", "user" + id, "Пользователь " + id,
+                    FIRST_BIRTHDAY.plusDays(userRandom.nextInt(20_000)));
+        }
+
+        for (long id = 1; id <= spec.getFilms(); id++) {
+            sink.film(id, "Фильм " + id, "Описание фильма " + id,
+                    FIRST_RELEASE.plusDays(filmRandom.nextInt(34_000)), 60 + filmRandom.nextInt(120),
+                    1 + filmRandom.nextInt(RATINGS.length));
+            int genres = 1 + filmRandom.nextInt(3);
+            int mask = 0;
+            for (int i = 0; i < genres; i++) {
+                int genre = 1 + filmRandom.nextInt(GENRES.length);
+                if ((mask & 1 << genre) == 0) {
+                    mask |= 1 << genre;
+                    sink.filmGenre(id, genre);
+                }
+            }
+        }
+
+        generateLikes(likeRandom, sink);
+        generateFriends(friendRandom, sink);
+        sink.close();
+        log.info("Сгенерирован каталог: {} пользователей, {} фильмов, сид {}",
+                spec.getUsers(), spec.getFilms(), spec.getSeed());
+    }
+
+    private void generateLikes(SplittableRandom random, DatasetSink sink) throws IOException {
+        int films = spec.getFilms();
+        if (films == 0) {
+            return;
+        }
+
+        double[] cdf = new double[films];
+        double sum = 0;
+        for (int rank = 0; rank < films; rank++) {
+            sum += 1 / Math.pow(rank + 1, spec.getZipfExponent());
+            cdf[rank] = sum;
+        }
+
+        // Ранг популярности не совпадает с ID, иначе самыми популярными всегда были бы старые фильмы
+        long[] filmByRank = new long[films];
+        for (int rank = 0; rank < films; rank++) {
+            filmByRank[rank] = rank + 1;
+        }
+        for (int i = films - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = filmByRank[i];
+            filmByRank[i] = filmByRank[j];
+            filmByRank[j] = tmp;
+        }
+
+        LongHashSet liked = new LongHashSet();
+        for (long userId = 1; userId <= spec.getUsers(); userId++) {
+            int count = (int) Math.min(films, -spec.getLikesPerUser() * Math.log(1 - random.nextDouble()));
+            liked.clear();
+            for (int attempt = 0; liked.size() < count && attempt < count * 4; attempt++) {
+                int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                long filmId = filmByRank[rank < 0 ? -rank - 1 : rank];
+                if (liked.add(filmId)) {
+                    sink.like(filmId, userId);
+                }
+            }
+        }
+    }
+
+    private void generateFriends(SplittableRandom random, DatasetSink sink) throws IOException {
+        int users = spec.getUsers();
+        int perUser = spec.getFriendsPerUser();
+        long[] endpoints = new long[Math.max(2, users * perUser * 2)];
+        int endpointCount = 0;
+        LongHashSet chosen = new LongHashSet();
+
+        for (long userId = 2; userId <= users; userId++) {
+            int count = (int) Math.min(perUser, userId - 1);
+            chosen.clear();
+            while (chosen.size() < count) {
+                long friendId = endpointCount == 0 ? 1 : endpoints[random.nextInt(endpointCount)];
+                if (friendId == userId || !chosen.add(friendId)) {
+                    continue;
+                }
+
+                sink.friend(userId, friendId);
+                if (random.nextDouble() < spec.getReciprocity()) {
+                    sink.friend(friendId, userId);
+                }
+                if (endpointCount + 2 > endpoints.length) {
+                    endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+                }
+                endpoints[endpointCount++] = userId;
+                endpoints[endpointCount++] = friendId;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+
+        DatasetSpec spec = DatasetSpec.builder()
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .users(Integer.parseInt(options.getOrDefault("users", "10000")))
+                .films(Integer.parseInt(options.getOrDefault("films", "5000")))
+                .likesPerUser(Double.parseDouble(options.getOrDefault("likesPerUser", "20")))
+                .zipfExponent(Double.parseDouble(options.getOrDefault("zipf", "1.0")))
+                .friendsPerUser(Integer.parseInt(options.getOrDefault("friendsPerUser", "5")))
+                .build();
+        if (options.containsKey("jdbc")) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(options.get("jdbc"),
+                    options.getOrDefault("user", "sa"), options.getOrDefault("password", ""));
+            DatasetLoader.load(new JdbcTemplate(dataSource), new DatasetGenerator(spec));
+            return;
+        }
+
+        Path out = Path.of(options.getOrDefault("out", "target/dataset"));
+        String format = options.getOrDefault("format", "csv");
+
+        DatasetSink sink = switch (format) {
+            case "csv" -> new CsvDatasetSink(out);
+            case "bin" -> new BinaryDatasetSink(out);
+            default -> throw new IllegalArgumentException("Неизвестный формат: " + format);
+        };
+        new DatasetGenerator(spec).generate(sink);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatasetLoader {
+    private static final int BATCH_SIZE = 5_000;
+    private static final String[][] IDENTITIES = {
+            {"users", "user_id"}, {"films", "film_id"}, {"ratings", "id"}, {"genres", "genre_id"},
+            {"film_genres", "id"}, {"film_likes", "like_id"}, {"friends", "id"}
+    };
+
+    public static void load(JdbcTemplate jdbc, DatasetGenerator generator) {
+        bulkLoad(jdbc, () -> generator.generate(new JdbcBatchSink(jdbc, BATCH_SIZE)));
+    }
+
+    public static void loadBinary(JdbcTemplate jdbc, Path file) {
+        bulkLoad(jdbc, () -> BinaryDatasetSink.replay(file, new JdbcBatchSink(jdbc, BATCH_SIZE)));
+    }
+
+    public static void loadCsv(JdbcTemplate jdbc, Path directory) {
+        bulkLoad(jdbc, () -> {
+            csvRead(jdbc, "users (user_id, email, login, name, birthday)",
+                    directory.resolve(CsvDatasetSink.USERS));
+            csvRead(jdbc, "films (film_id, name, description, releaseDate, duration, rating_id)",
+                    directory.resolve(CsvDatasetSink.FILMS));
+            csvRead(jdbc, "film_genres (film_id, genre_id)", directory.resolve(CsvDatasetSink.FILM_GENRES));
+            csvRead(jdbc, "film_likes (film_id, user_id)", directory.resolve(CsvDatasetSink.FILM_LIKES));
+            csvRead(jdbc, "friends (user_id, friend_id)", directory.resolve(CsvDatasetSink.FRIENDS));
+        });
+    }
+
+    public static CatalogSnapshot loadCatalog(DatasetGenerator generator) {
+        CatalogSink sink = new CatalogSink();
+        try {
+            generator.generate(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sink.getCatalog();
+    }
+
+    private static void bulkLoad(JdbcTemplate jdbc, Load load) {
+        long start = System.nanoTime();
+        List<String> deferred = createTables(jdbc);
+        insertReferenceData(jdbc);
+
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            load.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            jdbc.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        for (String[] identity : IDENTITIES) {
+            Long max = jdbc.queryForObject("SELECT COALESCE(MAX(" + identity[1] + "), 0) FROM " + identity[0],
+                    Long.class);
+            jdbc.execute("ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1] + " RESTART WITH " + (max + 1));
+        }
+        deferred.forEach(jdbc::execute);
+        jdbc.execute("ANALYZE");
+
+        log.info("Каталог загружен за {} мс, отложенных DDL: {}", (System.nanoTime() - start) / 1_000_000,
+                deferred.size());
+    }
+
+    private static List<String> createTables(JdbcTemplate jdbc) {
+        String schema;
+        try {
+            schema = new ClassPathResource("schema.sql").getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<String> deferred = new ArrayList<>();
+        for (String statement : schema.replaceAll("--[^\\n]*", "").split(";")) {
+            String sql = statement.trim();
+            if (sql.isEmpty()) {
+                continue;
+            }
+            String upper = sql.toUpperCase();
+            if (upper.startsWith("CREATE INDEX") || upper.startsWith("CREATE UNIQUE INDEX")
+                    || upper.startsWith("ALTER TABLE")) {
+                deferred.add(sql);
+            } else {
+                jdbc.execute(sql);
+            }
+        }
+        return deferred;
+    }
+
+    private static void insertReferenceData(JdbcTemplate jdbc) {
+        for (String rating : DatasetGenerator.RATINGS) {
+            jdbc.update("INSERT INTO ratings (name) VALUES (?)", rating);
+        }
+        for (String genre : DatasetGenerator.GENRES) {
+            jdbc.update("INSERT INTO genres (name) VALUES (?)", genre);
+        }
+    }
+
+    private static void csvRead(JdbcTemplate jdbc, String target, Path file) {
+        // Имя файла в CSVREAD нельзя передать параметром: H2 разбирает его при подготовке запроса
+        String fileName = file.toAbsolutePath().toString().replace("'", "''");
+        jdbc.update("INSERT INTO " + target + " SELECT * FROM CSVREAD('" + fileName + "', NULL, 'charset=UTF-8')");
+    }
+
+    @FunctionalInterface
+    private interface Load {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+
+public interface DatasetSink extends Closeable {
+    void user(long id, String email, String login, String name, LocalDate birthday) throws IOException;
+
+    void film(long id, String name, String description, LocalDate releaseDate, int duration, long ratingId)
+            throws IOException;
+
+    void filmGenre(long filmId, long genreId) throws IOException;
+
+    void like(long filmId, long userId) throws IOException;
+
+    void friend(long userId, long friendId) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
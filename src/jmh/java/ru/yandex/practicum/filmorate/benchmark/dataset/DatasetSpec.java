@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class DatasetSpec {
+    @Builder.Default
+    long seed = 42;
+
+    @Builder.Default
+    int users = 10_000;
+
+    @Builder.Default
+    int films = 5_000;
+
+    @Builder.Default
+    double likesPerUser = 20;
+
+    @Builder.Default
+    double zipfExponent = 1.0;
+
+    @Builder.Default
+    int friendsPerUser = 5;
+
+    @Builder.Default
+    double reciprocity = 0.5;
+}
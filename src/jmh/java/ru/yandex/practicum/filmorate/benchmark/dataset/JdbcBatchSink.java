@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.benchmark.dataset;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcBatchSink implements DatasetSink {
+    private static final String INSERT_USER = "INSERT INTO users (user_id, email, login, name, birthday) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_FILM = "INSERT INTO films (film_id, name, description, releaseDate, " +
+            "duration, rating_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_FILM_GENRE = "INSERT INTO film_genres (film_id, genre_id) VALUES (?, ?)";
+    private static final String INSERT_LIKE = "INSERT INTO film_likes (film_id, user_id) VALUES (?, ?)";
+    private static final String INSERT_FRIEND = "INSERT INTO friends (user_id, friend_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+    private final List<Object[]> users = new ArrayList<>();
+    private final List<Object[]> films = new ArrayList<>();
+    private final List<Object[]> filmGenres = new ArrayList<>();
+    private final List<Object[]> likes = new ArrayList<>();
+    private final List<Object[]> friends = new ArrayList<>();
+
+    public JdbcBatchSink(JdbcTemplate jdbc, int batchSize) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void user(long id, String email, String login, String name, LocalDate birthday) {
+        add(INSERT_USER, users, new Object[]{id, email, login, name, Date.valueOf(birthday)});
+    }
+
+    @Override
+    public void film(long id, String name, String description, LocalDate releaseDate, int duration, long ratingId) {
+        add(INSERT_FILM, films, new Object[]{id, name, description, Date.valueOf(releaseDate), duration, ratingId});
+    }
+
+    @Override
+    public void filmGenre(long filmId, long genreId) {
+        add(INSERT_FILM_GENRE, filmGenres, new Object[]{filmId, genreId});
+    }
+
+    @Override
+    public void like(long filmId, long userId) {
+        add(INSERT_LIKE, likes, new Object[]{filmId, userId});
+    }
+
+    @Override
+    public void friend(long userId, long friendId) {
+        add(INSERT_FRIEND, friends, new Object[]{userId, friendId});
+    }
+
+    @Override
+    public void close() {
+        flush(INSERT_USER, users);
+        flush(INSERT_FILM, films);
+        flush(INSERT_FILM_GENRE, filmGenres);
+        flush(INSERT_LIKE, likes);
+        flush(INSERT_FRIEND, friends);
+    }
+
+    private void add(String sql, List<Object[]> batch, Object[] row) {
+        batch.add(row);
+        if (batch.size() >= batchSize) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.yandex.practicum.filmorate.benchmark.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IdRewriter {
+    private static final Set<String> FILM_SEGMENTS = Set.of("films");
+    private static final Set<String> USER_SEGMENTS = Set.of("users", "friends", "common", "like");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final long seed;
+    private final int users;
+    private final int films;
+    private final AtomicLong created = new AtomicLong();
+
+    public IdRewriter(long seed, int users, int films) {
+        this.seed = seed;
+        this.users = users;
+        this.films = films;
+    }
+
+    public RecordedRequest rewrite(RecordedRequest request) {
+        int query = request.path().indexOf('?');
+        String path = query >= 0 ? request.path().substring(0, query) : request.path();
+        String[] segments = path.split("/");
+
+        String kind = null;
+        for (int i = 0; i < segments.length; i++) {
+            if (isNumber(segments[i])) {
+                segments[i] = Long.toString(map(kind, Long.parseLong(segments[i])));
+            } else if (!segments[i].isEmpty()) {
+                kind = segments[i];
+            }
+        }
+
+        String rewritten = String.join("/", segments);
+        if (query >= 0) {
+            rewritten += rewriteQuery(request.path().substring(query));
+        }
+        return new RecordedRequest(request.offsetNanos(), request.method(), rewritten,
+                rewriteBody(request.method(), path, request.body()));
+    }
+
+    private String rewriteQuery(String query) {
+        StringBuilder result = new StringBuilder("?");
+        for (String parameter : query.substring(1).split("&")) {
+            if (result.length() > 1) {
+                result.append('&');
+            }
+            int eq = parameter.indexOf('=');
+            String name = eq < 0 ? parameter : parameter.substring(0, eq);
+            if (eq < 0 || !name.equals("filmIds")) {
+                result.append(parameter);
+                continue;
+            }
+
+            result.append(name).append('=');
+            String[] ids = parameter.substring(eq + 1).split(",|%2C");
+            for (int i = 0; i < ids.length; i++) {
+                result.append(i == 0 ? "" : ",").append(isNumber(ids[i])
+                        ? Long.toString(map("films", Long.parseLong(ids[i]))) : ids[i]);
+            }
+        }
+        return result.toString();
+    }
+
+    private String rewriteBody(String method, String path, String body) {
+        if (body == null || body.isBlank() || !(path.equals("/films") || path.equals("/users"))) {
+            return body;
+        }
+
+        try {
+            JsonNode node = mapper.readTree(body);
+            if (!(node instanceof ObjectNode object)) {
+                return body;
+            }
+
+            String kind = path.substring(1);
+            if (object.hasNonNull("id") && object.get("id").canConvertToLong()) {
+                object.put("id", map(kind, object.get("id").asLong()));
+            }
+            // Новые пользователи не должны конфликтовать с каталогом и друг с другом по email и логину
+            if ("POST".equals(method) && kind.equals("users")) {
+                long n = created.incrementAndGet();
+                object.put("email", "replay" + n + "@example.com");
+                object.put("login", "replay" + n);
+            }
+            return mapper.writeValueAsString(object);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+
+    private long map(String kind, long id) {
+        if (kind != null && FILM_SEGMENTS.contains(kind)) {
+            return Math.floorMod(mix(seed ^ mix(id)), (long) films) + 1;
+        }
+        if (kind != null && USER_SEGMENTS.contains(kind)) {
+            return Math.floorMod(mix(~seed ^ mix(id)), (long) users) + 1;
+        }
+        return id;
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.benchmark.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class LogbookLogParser {
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d{1,9})?)");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd")
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .appendPattern("HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public List<RecordedRequest> parse(Path file) throws IOException {
+        List<RecordedRequest> requests = new ArrayList<>();
+        LocalDateTime first = null;
+        int skipped = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int json = line.indexOf('{');
+                if (json < 0) {
+                    continue;
+                }
+
+                JsonNode node;
+                try {
+                    node = mapper.readTree(line.substring(json));
+                } catch (IOException e) {
+                    skipped++;
+                    continue;
+                }
+                if (!"request".equals(node.path("type").asText()) || !node.hasNonNull("method")) {
+                    continue;
+                }
+
+                LocalDateTime time = timestamp(line);
+                if (time != null && first == null) {
+                    first = time;
+                }
+                long offset = time == null ? 0 : ChronoUnit.NANOS.between(first, time);
+                requests.add(new RecordedRequest(Math.max(0, offset), node.get("method").asText(), path(node),
+                        body(node)));
+            }
+        }
+
+        if (skipped > 0) {
+            log.warn("Пропущено {} строк с некорректным JSON в {}", skipped, file);
+        }
+        log.info("Из {} прочитано {} запросов", file, requests.size());
+        return requests;
+    }
+
+    private LocalDateTime timestamp(String line) {
+        Matcher matcher = TIMESTAMP.matcher(line);
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDateTime.parse(matcher.group(1).replace(',', '.'), TIMESTAMP_FORMAT);
+    }
+
+    private String path(JsonNode node) {
+        if (node.hasNonNull("path")) {
+            String path = node.get("path").asText();
+            String uri = node.path("uri").asText("");
+            int query = uri.indexOf('?');
+            return query >= 0 ? path + uri.substring(query) : path;
+        }
+        URI uri = URI.create(node.path("uri").asText("/"));
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    private String body(JsonNode node) throws IOException {
+        JsonNode body = node.get("body");
+        if (body == null || body.isNull()) {
+            return null;
+        }
+        return body.isTextual() ? body.asText() : mapper.writeValueAsString(body);
+    }
+}
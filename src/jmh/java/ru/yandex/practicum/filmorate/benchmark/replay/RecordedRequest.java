@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.benchmark.replay;
+
+public record RecordedRequest(long offsetNanos, String method, String path, String body) {
+}
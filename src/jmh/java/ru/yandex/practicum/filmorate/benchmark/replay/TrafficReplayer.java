@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.benchmark.replay;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+public class TrafficReplayer {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final String baseUrl;
+    private final double speed;
+
+    public TrafficReplayer(String baseUrl, double speed) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.speed = speed;
+    }
+
+    public void replay(List<RecordedRequest> requests) throws InterruptedException {
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (RecordedRequest request : requests) {
+                if (speed > 0) {
+                    long due = start + (long) (request.offsetNanos() / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                executor.execute(() -> send(request));
+            }
+        }
+        report(System.nanoTime() - start);
+    }
+
+    private void send(RecordedRequest request) {
+        EndpointStats endpoint = stats.computeIfAbsent(endpoint(request), key -> new EndpointStats());
+        HttpRequest.BodyPublisher body = request.body() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(request.body());
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(request.method(), body)
+                .build();
+
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+            endpoint.latency.record((System.nanoTime() - started) / 1_000);
+            if (response.statusCode() >= 500) {
+                endpoint.serverErrors.incrementAndGet();
+            } else if (response.statusCode() >= 400) {
+                endpoint.clientErrors.incrementAndGet();
+            }
+        } catch (IOException e) {
+            endpoint.failures.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Воспроизведение заняло %.1f с%n", seconds);
+        System.out.printf("%-40s %8s %9s %6s %6s %6s %9s %9s %9s %9s %9s%n", "Эндпоинт", "Запросов", "RPS",
+                "4xx", "5xx", "Сбоев", "p50, мс", "p90, мс", "p99, мс", "p99.9, мс", "max, мс");
+
+        new TreeMap<>(stats).forEach((endpoint, s) -> System.out.printf(
+                "%-40s %8d %9.1f %6d %6d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, s.latency.getCount(), s.latency.getCount() / seconds, s.clientErrors.get(),
+                s.serverErrors.get(), s.failures.get(), s.latency.percentile(50) / 1e3,
+                s.latency.percentile(90) / 1e3, s.latency.percentile(99) / 1e3,
+                s.latency.percentile(99.9) / 1e3, s.latency.getMax() / 1e3));
+    }
+
+    static String endpoint(RecordedRequest request) {
+        int query = request.path().indexOf('?');
+        String path = query >= 0 ? request.path().substring(0, query) : request.path();
+        return request.method() + " " + path.replaceAll("/\\d+(?=/|$)", "/{id}");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        if (!options.containsKey("log")) {
+            System.err.println("Использование: log=<файл лога Logbook> [base=http://localhost:8080] [speed=1] "
+                    + "[seed=42] [users=10000] [films=5000] [limit=]");
+            return;
+        }
+
+        List<RecordedRequest> requests = new LogbookLogParser().parse(Path.of(options.get("log")));
+        if (options.containsKey("limit")) {
+            requests = requests.subList(0, Math.min(requests.size(), Integer.parseInt(options.get("limit"))));
+        }
+
+        IdRewriter rewriter = new IdRewriter(Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("users", "10000")),
+                Integer.parseInt(options.getOrDefault("films", "5000")));
+        List<RecordedRequest> rewritten = requests.stream()
+                .map(rewriter::rewrite)
+                .toList();
+
+        double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        log.info("Воспроизводим {} запросов, скорость {}x", rewritten.size(), speed);
+        new TrafficReplayer(options.getOrDefault("base", "http://localhost:8080"), speed).replay(rewritten);
+    }
+
+    private static final class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+    }
+}
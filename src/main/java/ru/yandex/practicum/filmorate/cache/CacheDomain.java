@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.cache;
+
+public enum CacheDomain {
+    FILMS,
+    GENRES,
+    MPA
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class CacheVersions {
+    private final AtomicLongArray versions = new AtomicLongArray(CacheDomain.values().length);
+
+    public void invalidate(CacheDomain domain) {
+        versions.incrementAndGet(domain.ordinal());
+    }
+
+    // Версии только растут, поэтому сумма меняется при изменении любого из доменов
+    public long version(CacheDomain... domains) {
+        long version = 0;
+        for (CacheDomain domain : domains) {
+            version += versions.get(domain.ordinal());
+        }
+        return version;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Component
+public class ResponseCache {
+    private final ResponseCacheProperties properties;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized Entry get(String key, long version) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version() != version) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String key, long version, String contentType, byte[] body) {
+        if (body.length > properties.getMaxEntrySize().toBytes()) {
+            return;
+        }
+
+        byte[] compressed = gzip(body);
+        Entry entry = new Entry(version, contentType, toDirect(body),
+                compressed.length < body.length ? toDirect(compressed) : null);
+
+        synchronized (this) {
+            remove(key);
+            entries.put(key, entry);
+            usedBytes += entry.size();
+            evict();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.size();
+        }
+    }
+
+    private void evict() {
+        long maxBytes = properties.getMaxSize().toBytes();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            usedBytes -= iterator.next().getValue().size();
+            iterator.remove();
+        }
+    }
+
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Буферы общие для всех читателей, отдавать их только через duplicate()
+    public record Entry(long version, String contentType, ByteBuffer body, ByteBuffer gzip) {
+        long size() {
+            return body.capacity() + (gzip == null ? 0 : gzip.capacity());
+        }
+    }
+}
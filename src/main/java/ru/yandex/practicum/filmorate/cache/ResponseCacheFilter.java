@@ -0,0 +1,185 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private static final List<Rule> RULES = List.of(
+            new Rule(Pattern.compile("/films/(popular|\\d+)"), CacheDomain.FILMS, CacheDomain.GENRES, CacheDomain.MPA),
+            new Rule(Pattern.compile("/genres(/\\d+)?"), CacheDomain.GENRES),
+            new Rule(Pattern.compile("/mpa(/\\d+)?"), CacheDomain.MPA)
+    );
+
+    private final ResponseCache cache;
+    private final CacheVersions versions;
+    private final ResponseCacheProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !"GET".equals(request.getMethod()) || findRule(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Rule rule = findRule(request);
+        String key = key(request);
+        long version = versions.version(rule.domains());
+        boolean gzip = acceptsGzip(request);
+
+        ResponseCache.Entry entry = cache.get(key, version);
+        if (entry != null) {
+            writeEntry(response, entry, gzip);
+            return;
+        }
+
+        ContentCachingResponseWrapper shared = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        ContentCachingResponseWrapper wrapper = shared != null ? shared : new ContentCachingResponseWrapper(response);
+        int offset = wrapper.getContentSize();
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+                String contentType = contentType(wrapper);
+                wrapper.setContentType(contentType);
+                byte[] body = wrapper.getContentAsByteArray();
+                cache.put(key, version, contentType, offset == 0 ? body : Arrays.copyOfRange(body, offset, body.length));
+            }
+        } finally {
+            wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            wrapper.setHeader(CACHE_HEADER, "MISS");
+            if (shared == null) {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private static void writeEntry(HttpServletResponse response, ResponseCache.Entry entry, boolean gzip)
+            throws IOException {
+        ByteBuffer body = entry.body();
+        if (gzip && entry.gzip() != null) {
+            body = entry.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        body = body.duplicate();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.remaining());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(CACHE_HEADER, "HIT");
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    private static Rule findRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : RULES) {
+            if (rule.path().matcher(path).matches()) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String key(HttpServletRequest request) {
+        Map<String, String[]> parameters = request.getParameterMap();
+        if (parameters.isEmpty()) {
+            return request.getRequestURI();
+        }
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(parameters).entrySet()) {
+            String name = URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8);
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static String contentType(HttpServletResponse response) {
+        MediaType type = MediaType.parseMediaType(response.getContentType());
+        if (type.getCharset() != null) {
+            return type.toString();
+        }
+        Charset charset = MediaType.APPLICATION_JSON.includes(type)
+                ? StandardCharsets.UTF_8
+                : Charset.forName(response.getCharacterEncoding());
+        return new MediaType(type, charset).toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    // gzip подходит, если он назван с ненулевым q, а если не назван — если ненулевой q у *
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private record Rule(Pattern path, CacheDomain... domains) {
+    }
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.coalescing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+@Component
+public class RequestCoalescer implements MeterBinder {
+    private final Map<String, SingleFlight<?, ?>> flights = new LinkedHashMap<>();
+    private MeterRegistry registry;
+
+    public RequestCoalescer() {
+    }
+
+    public RequestCoalescer(MeterRegistry registry) {
+        bindTo(registry);
+    }
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        return create(name, UnaryOperator.identity());
+    }
+
+    public synchronized <K, V> SingleFlight<K, V> create(String name, UnaryOperator<V> copier) {
+        SingleFlight<K, V> singleFlight = new SingleFlight<>(copier);
+        flights.put(name, singleFlight);
+        if (registry != null) {
+            register(registry, name, singleFlight);
+        }
+        return singleFlight;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        flights.forEach((name, singleFlight) -> register(registry, name, singleFlight));
+    }
+
+    private static void register(MeterRegistry registry, String name, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("filmorate.coalescing.calls", singleFlight, SingleFlight::leaders)
+                .tag("name", name)
+                .tag("role", "leader")
+                .register(registry);
+        FunctionCounter.builder("filmorate.coalescing.calls", singleFlight, SingleFlight::followers)
+                .tag("name", name)
+                .tag("role", "follower")
+                .register(registry);
+        Gauge.builder("filmorate.coalescing.ratio", singleFlight, RequestCoalescer::ratio)
+                .tag("name", name)
+                .description("Доля вызовов, дождавшихся результата ведущего")
+                .register(registry);
+        Gauge.builder("filmorate.coalescing.in.flight", singleFlight, SingleFlight::inFlight)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private static double ratio(SingleFlight<?, ?> singleFlight) {
+        double leaders = singleFlight.leaders();
+        double followers = singleFlight.followers();
+        double total = leaders + followers;
+        return total == 0 ? 0 : followers / total;
+    }
+}
@@ -6,11 +6,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.dto.film.FilmLikesDto;
 import ru.yandex.practicum.filmorate.dto.film.NewFilmRequest;
 import ru.yandex.practicum.filmorate.dto.film.UpdateFilmRequest;
+import ru.yandex.practicum.filmorate.model.FilmField;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -20,8 +24,10 @@ public class FilmController {
     private final FilmService filmService;
 
     @GetMapping
-    public Collection<FilmDto> findAllFilms() {
-        return filmService.findAllFilms();
+    public Collection<FilmDto> findAllFilms(@RequestParam(required = false) List<Long> ids,
+                                            @RequestParam(required = false) String fields) {
+        Set<FilmField> selected = FilmField.parse(fields);
+        return ids == null ? filmService.findAllFilms(selected) : filmService.findFilmsByIds(ids, selected);
     }
 
     @PostMapping
@@ -35,8 +41,14 @@ public class FilmController {
     }
 
     @GetMapping("/{id}")
-    public FilmDto findFilmById(@PathVariable Long id) {
-        return filmService.findFilmById(id);
+    public FilmDto findFilmById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        return filmService.findFilmById(id, FilmField.parse(fields));
+    }
+
+    @GetMapping("/{id}/likes")
+    public FilmLikesDto getLikes(@PathVariable Long id, @RequestParam(required = false) Long after,
+                                 @RequestParam(required = false) Integer limit) {
+        return filmService.getLikes(id, after, limit);
     }
 
     @PutMapping("/{id}/like/{userId}")
@@ -51,7 +63,8 @@ public class FilmController {
 
     @GetMapping("/popular")
     public Collection<FilmDto> getPopularFilms(@Positive(message = "Количество фильмов должно быть больше 0")
-                                            @RequestParam(defaultValue = "10") int count) {
-        return filmService.getPopularFilms(count);
+                                            @RequestParam(defaultValue = "10") int count,
+                                            @RequestParam(required = false) String fields) {
+        return filmService.getPopularFilms(count, FilmField.parse(fields));
     }
 }
@@ -0,0 +1,163 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.storage.metrics.QueryCounter;
+import ru.yandex.practicum.filmorate.timing.Phase;
+import ru.yandex.practicum.filmorate.timing.RequestTimings;
+import ru.yandex.practicum.filmorate.timing.TimingProperties;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Logger timingLog = LoggerFactory.getLogger("filmorate.timing");
+    private static final Phase[] PHASES = Phase.values();
+
+    private final TimingProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TimingResponse timingResponse = new TimingResponse(response);
+        QueryCounter.start();
+        if (properties.isEnabled()) {
+            RequestTimings.start();
+        }
+        try {
+            chain.doFilter(request, timingResponse);
+        } finally {
+            timingResponse.writeHeaders();
+            QueryCounter.Counts counts = QueryCounter.stop();
+            RequestTimings timings = properties.isEnabled() ? RequestTimings.finish() : null;
+            if (timings != null && shouldLog(timings)) {
+                log(request, response.getStatus(), timings, counts);
+            }
+        }
+    }
+
+    private String serverTiming(RequestTimings timings, QueryCounter.Counts counts) {
+        StringBuilder header = new StringBuilder(256);
+        if (timings != null) {
+            appendMetric(header, "total", timings.getTotalNanos());
+            for (Phase phase : PHASES) {
+                // Заголовки уходят до записи тела, сериализация к этому моменту ещё не началась
+                if (phase != Phase.SERIALIZATION && timings.getCalls(phase) > 0) {
+                    appendMetric(header, phase.getMetricName(), timings.getNanos(phase));
+                    if (phase == Phase.STORAGE) {
+                        header.append(";desc=\"").append(timings.getCalls(phase)).append(" calls\"");
+                    }
+                }
+            }
+        }
+        appendMetric(header, "db", counts.getNanos());
+        header.append(";desc=\"").append(counts.getStatements()).append(" queries\"");
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long hundredths = (nanos + 5_000) / 10_000;
+        long fraction = hundredths % 100;
+        header.append(name).append(";dur=").append(hundredths / 100).append(fraction < 10 ? ".0" : ".")
+                .append(fraction);
+    }
+
+    private boolean shouldLog(RequestTimings timings) {
+        if (!timingLog.isInfoEnabled()) {
+            return false;
+        }
+        return timings.getTotalNanos() >= properties.getSlowRequestThreshold().toNanos()
+                || ThreadLocalRandom.current().nextDouble() < properties.getLogSampleRate();
+    }
+
+    private void log(HttpServletRequest request, int status, RequestTimings timings, QueryCounter.Counts counts) {
+        StringBuilder line = new StringBuilder(256)
+                .append("method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" total_us=").append(timings.getTotalNanos() / 1_000);
+        for (Phase phase : PHASES) {
+            line.append(' ').append(phase.getMetricName()).append("_us=").append(timings.getNanos(phase) / 1_000);
+        }
+        line.append(" storage_calls=").append(timings.getCalls(Phase.STORAGE))
+                .append(" db_us=").append(counts.getNanos() / 1_000)
+                .append(" queries=").append(counts.getStatements());
+        timingLog.info(line.toString());
+    }
+
+    private final class TimingResponse extends HttpServletResponseWrapper {
+        private boolean headersWritten;
+
+        private TimingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        private void writeHeaders() {
+            if (headersWritten) {
+                return;
+            }
+            headersWritten = true;
+            QueryCounter.Counts counts = QueryCounter.peek();
+            RequestTimings timings = properties.isEnabled() ? RequestTimings.peek() : null;
+            setHeader(QUERY_COUNT_HEADER, Integer.toString(counts.getStatements()));
+            setHeader(SERVER_TIMING_HEADER, serverTiming(timings, counts));
+        }
+    }
+}
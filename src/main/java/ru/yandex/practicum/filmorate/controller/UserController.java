@@ -6,9 +6,13 @@ import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.dto.user.NewUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UpdateUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UserDto;
+import ru.yandex.practicum.filmorate.model.UserField;
 import ru.yandex.practicum.filmorate.service.UserService;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,8 +21,10 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public Collection<UserDto> findAllUsers() {
-        return userService.findAllUsers();
+    public Collection<UserDto> findAllUsers(@RequestParam(required = false) List<Long> ids,
+                                            @RequestParam(required = false) String fields) {
+        Set<UserField> selected = UserField.parse(fields);
+        return ids == null ? userService.findAllUsers(selected) : userService.findUsersByIds(ids, selected);
     }
 
     @PostMapping
@@ -32,8 +38,8 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto findUserById(@PathVariable Long id) {
-        return userService.findUserById(id);
+    public UserDto findUserById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        return userService.findUserById(id, UserField.parse(fields));
     }
 
     @PutMapping("/{id}/friends/{friendId}")
@@ -47,12 +53,18 @@ public class UserController {
     }
 
     @GetMapping("/{id}/friends")
-    public Collection<UserDto> getFriends(@PathVariable Long id) {
-        return userService.getFriends(id);
+    public Collection<UserDto> getFriends(@PathVariable Long id, @RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Integer limit) {
+        return userService.getFriends(id, after, limit);
     }
 
     @GetMapping("/{id}/friends/common/{otherId}")
     public Collection<UserDto> getCommonFriends(@PathVariable Long id, @PathVariable Long otherId) {
         return userService.getCommonFriends(id, otherId);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/likes/contains")
+    public Map<Long, Boolean> findLikedFilms(@PathVariable Long id, @RequestParam List<Long> filmIds) {
+        return userService.findLikedFilms(id, filmIds);
+    }
+}
@@ -1,16 +1,18 @@
 package ru.yandex.practicum.filmorate.dto.film;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import ru.yandex.practicum.filmorate.dto.mpa.MpaDto;
 import ru.yandex.practicum.filmorate.model.Genre;
 
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Data
+@JsonFilter("fields")
 public class FilmDto {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
@@ -19,7 +21,9 @@ public class FilmDto {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDate releaseDate;
     private Long duration;
-    private Set<Long> likes = new HashSet<>();
+    private long likeCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Set<Long> likes;
     private LinkedHashSet<Genre> genres = new LinkedHashSet<>();
     private MpaDto mpa;
 }
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.dto.film;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FilmLikesDto {
+    private Long filmId;
+    private List<Long> userIds;
+    private Long next;
+}
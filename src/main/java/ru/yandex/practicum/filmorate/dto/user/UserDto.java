@@ -1,5 +1,7 @@
 package ru.yandex.practicum.filmorate.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -7,6 +9,7 @@ import java.time.LocalDate;
 import java.util.Set;
 
 @Data
+@JsonFilter("fields")
 public class UserDto {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
@@ -15,5 +18,7 @@ public class UserDto {
     private String name;
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDate birthday;
+    private long friendCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private Set<Long> friends;
 }
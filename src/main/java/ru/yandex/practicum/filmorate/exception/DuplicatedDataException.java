@@ -2,6 +2,6 @@ package ru.yandex.practicum.filmorate.exception;
 
 public class DuplicatedDataException extends RuntimeException {
     public DuplicatedDataException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
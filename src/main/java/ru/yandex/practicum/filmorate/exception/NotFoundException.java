@@ -2,6 +2,6 @@ package ru.yandex.practicum.filmorate.exception;
 
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
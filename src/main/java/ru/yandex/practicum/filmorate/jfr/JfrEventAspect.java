@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.dto.user.UserDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@Aspect
+@Component
+public class JfrEventAspect {
+    @Around("execution(* ru.yandex.practicum.filmorate.storage.film.FilmStorage.*(..)) " +
+            "|| execution(* ru.yandex.practicum.filmorate.storage.user.UserStorage.*(..)) " +
+            "|| execution(* ru.yandex.practicum.filmorate.storage.genre.GenreStorage.*(..))")
+    public Object recordStorage(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, new StorageEvent());
+    }
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.service.FilmService.*(..)) " +
+            "|| execution(public * ru.yandex.practicum.filmorate.service.UserService.*(..))")
+    public Object recordService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, new ServiceEvent());
+    }
+
+    private Object record(ProceedingJoinPoint joinPoint, OperationEvent event) throws Throwable {
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                fill(event, joinPoint, result);
+                event.commit();
+            }
+        }
+    }
+
+    private static void fill(OperationEvent event, ProceedingJoinPoint joinPoint, Object result) {
+        event.operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        for (Object arg : joinPoint.getArgs()) {
+            long id = idOf(arg);
+            if (id == 0) {
+                continue;
+            }
+            if (event.entityId == 0) {
+                event.entityId = id;
+            } else if (event.relatedId == 0) {
+                event.relatedId = id;
+                break;
+            }
+        }
+        if (event.entityId == 0) {
+            event.entityId = idOf(result);
+        }
+        event.rows = rowsOf(result, joinPoint);
+    }
+
+    private static long idOf(Object value) {
+        Long id = null;
+        if (value instanceof Long longId) {
+            id = longId;
+        } else if (value instanceof Film film) {
+            id = film.getId();
+        } else if (value instanceof User user) {
+            id = user.getId();
+        } else if (value instanceof FilmDto film) {
+            id = film.getId();
+        } else if (value instanceof UserDto user) {
+            id = user.getId();
+        }
+        return id == null ? 0 : id;
+    }
+
+    private static int rowsOf(Object result, ProceedingJoinPoint joinPoint) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Map<?, ?> map) {
+            return map.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Boolean changed) {
+            return changed ? 1 : 0;
+        } else if (result != null) {
+            return 1;
+        }
+        return ((MethodSignature) joinPoint.getSignature()).getReturnType() == void.class ? 0 : -1;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+@StackTrace(false)
+public abstract class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Entity ID")
+    long entityId;
+
+    @Label("Related ID")
+    long relatedId;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
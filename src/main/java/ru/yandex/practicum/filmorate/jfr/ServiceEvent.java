@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("filmorate.Service")
+@Label("Service Operation")
+@Category({"Filmorate", "Service"})
+@Description("Вызов публичного метода FilmService или UserService")
+public class ServiceEvent extends OperationEvent {
+}
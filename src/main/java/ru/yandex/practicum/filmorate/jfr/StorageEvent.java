@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("filmorate.Storage")
+@Label("Storage Operation")
+@Category({"Filmorate", "Storage"})
+@Description("Вызов FilmStorage, UserStorage или GenreStorage")
+public class StorageEvent extends OperationEvent {
+}
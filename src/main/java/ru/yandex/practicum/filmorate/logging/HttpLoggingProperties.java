@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.logging")
+public class HttpLoggingProperties {
+    private Mode mode = Mode.SAMPLED;
+    private double sampleRate = 0.01;
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+    private int alwaysLogStatus = 400;
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    public enum Mode {
+        FULL,
+        SAMPLED
+    }
+}
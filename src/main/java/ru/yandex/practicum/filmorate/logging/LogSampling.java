@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LogSampling {
+    private static final ThreadLocal<Boolean> sampled = new ThreadLocal<>();
+
+    public static boolean isSampled() {
+        Boolean value = sampled.get();
+        return value == null || value;
+    }
+
+    static void set(boolean value) {
+        sampled.set(value);
+    }
+
+    static void clear() {
+        sampled.remove();
+    }
+}
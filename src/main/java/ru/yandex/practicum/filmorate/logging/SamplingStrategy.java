@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class SamplingStrategy implements Strategy {
+    private final HttpLoggingProperties properties;
+    private final List<Rate> rates;
+
+    public SamplingStrategy(HttpLoggingProperties properties) {
+        this.properties = properties;
+        this.rates = properties.getSampleRates().entrySet().stream()
+                .map(entry -> new Rate(PathPatternParser.defaultInstance.parse(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        LogSampling.set(properties.getMode() == HttpLoggingProperties.Mode.FULL
+                || ThreadLocalRandom.current().nextDouble() < rateFor(request.getPath()));
+        return request.withBody();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) {
+        // Запрос пишется вместе с ответом, когда станет ясно, нужен ли он
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        return LogSampling.isSampled() || isError(response) ? response.withBody() : response.withoutBody();
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        try {
+            if (LogSampling.isSampled() || isError(response)
+                    || correlation.getDuration().compareTo(properties.getSlowThreshold()) >= 0) {
+                sink.writeBoth(correlation, request, response);
+            }
+        } finally {
+            LogSampling.clear();
+        }
+    }
+
+    private boolean isError(HttpResponse response) {
+        return response.getStatus() >= properties.getAlwaysLogStatus();
+    }
+
+    private double rateFor(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Rate rate : rates) {
+            if (rate.pattern().matches(container)) {
+                return rate.value();
+            }
+        }
+        return properties.getSampleRate();
+    }
+
+    private record Rate(PathPattern pattern, double value) {
+    }
+}
@@ -5,25 +5,106 @@ import lombok.NoArgsConstructor;
 import ru.yandex.practicum.filmorate.dto.film.FilmDto;
 import ru.yandex.practicum.filmorate.dto.film.NewFilmRequest;
 import ru.yandex.practicum.filmorate.dto.film.UpdateFilmRequest;
+import ru.yandex.practicum.filmorate.dto.mpa.MpaDto;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.timing.Phase;
+import ru.yandex.practicum.filmorate.timing.RequestTimings;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+
+import java.util.LinkedHashSet;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class FilmMapper {
     public static FilmDto mapToFilmDto(Film film) {
+        RequestTimings.enter(Phase.MAPPING);
+        try {
+            FilmDto dto = new FilmDto();
+            dto.setId(film.getId());
+            dto.setName(film.getName());
+            dto.setDescription(film.getDescription());
+            dto.setReleaseDate(film.getReleaseDate());
+            dto.setDuration(film.getDuration() == null ? null : Long.valueOf(film.getDuration()));
+            dto.setLikeCount(likeCount(film));
+            dto.setGenres(film.getGenres());
+
+            if (film.getMpa() != null) {
+                dto.setMpa(MpaMapper.mapToMpaDto(film.getMpa()));
+            }
+
+            return dto;
+        } finally {
+            RequestTimings.exit();
+        }
+    }
+
+    // Хранилища в памяти счётчик не заполняют, у них под рукой весь набор лайков
+    private static long likeCount(Film film) {
+        if (film.getLikeCount() != null) {
+            return film.getLikeCount();
+        }
+        return film.getLikes() == null ? 0 : film.getLikes().size();
+    }
+
+    public static FilmDto copyFilmDto(FilmDto source) {
         FilmDto dto = new FilmDto();
-        dto.setId(film.getId());
-        dto.setName(film.getName());
-        dto.setDescription(film.getDescription());
-        dto.setReleaseDate(film.getReleaseDate());
-        dto.setDuration(Long.valueOf(film.getDuration()));
-        dto.setLikes(film.getLikes());
-        dto.setGenres(film.getGenres());
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setDescription(source.getDescription());
+        dto.setReleaseDate(source.getReleaseDate());
+        dto.setDuration(source.getDuration());
+        dto.setLikeCount(source.getLikeCount());
 
-        dto.setMpa(MpaMapper.mapToMpaDto(film.getMpa()));
+        if (source.getLikes() != null) {
+            dto.setLikes(new LinkedHashSet<>(source.getLikes()));
+        }
+
+        if (source.getGenres() != null) {
+            LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+            source.getGenres().forEach(genre -> genres.add(new Genre(genre.getId(), genre.getName())));
+            dto.setGenres(genres);
+        } else {
+            dto.setGenres(null);
+        }
+
+        if (source.getMpa() != null) {
+            MpaDto mpa = new MpaDto();
+            mpa.setId(source.getMpa().getId());
+            mpa.setName(source.getMpa().getName());
+            dto.setMpa(mpa);
+        }
 
         return dto;
     }
 
+    public static Film copyFilm(Film source) {
+        Film film = new Film();
+        film.setId(source.getId());
+        film.setName(source.getName());
+        film.setDescription(source.getDescription());
+        film.setReleaseDate(source.getReleaseDate());
+        film.setDuration(source.getDuration());
+        film.setLikeCount(source.getLikeCount());
+        film.setLikes(source.getLikes() == null ? new LongHashSet() : new LongHashSet(source.getLikes()));
+
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+        if (source.getGenres() != null) {
+            source.getGenres().forEach(genre -> genres.add(new Genre(genre.getId(), genre.getName())));
+        }
+        film.setGenres(genres);
+
+        if (source.getMpa() != null) {
+            Mpa mpa = new Mpa();
+            mpa.setId(source.getMpa().getId());
+            mpa.setName(source.getMpa().getName());
+            mpa.setDescription(source.getMpa().getDescription());
+            film.setMpa(mpa);
+        }
+
+        return film;
+    }
+
     public static Film mapToFilm(NewFilmRequest request) {
         Film film = new Film();
         film.setName(request.getName());
@@ -6,6 +6,13 @@ import ru.yandex.practicum.filmorate.dto.user.NewUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UpdateUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UserDto;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
+import ru.yandex.practicum.filmorate.timing.Phase;
+import ru.yandex.practicum.filmorate.timing.RequestTimings;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class UserMapper {
@@ -18,18 +25,65 @@ public final class UserMapper {
         return user;
     }
 
+    public static User copyUser(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setEmail(source.getEmail());
+        user.setLogin(source.getLogin());
+        user.setName(source.getName());
+        user.setBirthday(source.getBirthday());
+        user.setFriendCount(source.getFriendCount());
+        user.setFriends(source.getFriends() == null ? new LongHashSet() : new LongHashSet(source.getFriends()));
+        return user;
+    }
+
     public static UserDto mapToUserDto(User user) {
+        RequestTimings.enter(Phase.MAPPING);
+        try {
+            UserDto dto = new UserDto();
+            dto.setId(user.getId());
+            dto.setEmail(user.getEmail());
+            dto.setLogin(user.getLogin());
+            dto.setName(user.getName());
+            dto.setBirthday(user.getBirthday());
+            dto.setFriendCount(friendCount(user));
+
+            return dto;
+        } finally {
+            RequestTimings.exit();
+        }
+    }
+
+    public static UserDto copyUserDto(UserDto source) {
         UserDto dto = new UserDto();
-        dto.setId(user.getId());
-        dto.setEmail(user.getEmail());
-        dto.setLogin(user.getLogin());
-        dto.setName(user.getName());
-        dto.setBirthday(user.getBirthday());
-        dto.setFriends(user.getFriends());
+        dto.setId(source.getId());
+        dto.setEmail(source.getEmail());
+        dto.setLogin(source.getLogin());
+        dto.setName(source.getName());
+        dto.setBirthday(source.getBirthday());
+        dto.setFriendCount(source.getFriendCount());
+        if (source.getFriends() != null) {
+            dto.setFriends(new LinkedHashSet<>(source.getFriends()));
+        }
+        return dto;
+    }
 
+    public static UserDto mapToUserDto(User user, Set<UserField> fields) {
+        UserDto dto = mapToUserDto(user);
+        if (fields.contains(UserField.FRIENDS)) {
+            dto.setFriends(user.getFriends());
+        }
         return dto;
     }
 
+    // Хранилища в памяти счётчик не заполняют, у них под рукой весь набор друзей
+    private static long friendCount(User user) {
+        if (user.getFriendCount() != null) {
+            return user.getFriendCount();
+        }
+        return user.getFriends() == null ? 0 : user.getFriends().size();
+    }
+
     public static User updateUserFields(User user, UpdateUserRequest request) {
         if (request.hasEmail()) {
             user.setEmail(request.getEmail());
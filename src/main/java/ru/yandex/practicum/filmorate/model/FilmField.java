@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public enum FilmField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    RELEASE_DATE("releaseDate"),
+    DURATION("duration"),
+    LIKES("likes"),
+    LIKE_COUNT("likeCount"),
+    GENRES("genres"),
+    MPA("mpa");
+
+    public static final Set<FilmField> ALL = Collections.unmodifiableSet(EnumSet.allOf(FilmField.class));
+    public static final Set<FilmField> DEFAULT = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(LIKES)));
+
+    private final String jsonName;
+
+    public static Set<FilmField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DEFAULT;
+        }
+
+        EnumSet<FilmField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            result.add(byJsonName(name.trim()));
+        }
+        if (result.equals(ALL)) {
+            return ALL;
+        }
+        return result.equals(DEFAULT) ? DEFAULT : Collections.unmodifiableSet(result);
+    }
+
+    private static FilmField byJsonName(String name) {
+        for (FilmField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Неизвестное поле фильма: " + name);
+    }
+}
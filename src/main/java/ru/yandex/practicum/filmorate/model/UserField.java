@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public enum UserField {
+    ID("id"),
+    EMAIL("email"),
+    LOGIN("login"),
+    NAME("name"),
+    BIRTHDAY("birthday"),
+    FRIENDS("friends"),
+    FRIEND_COUNT("friendCount");
+
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+    public static final Set<UserField> DEFAULT = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(FRIENDS)));
+
+    private final String jsonName;
+
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DEFAULT;
+        }
+
+        EnumSet<UserField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            result.add(byJsonName(name.trim()));
+        }
+        if (result.equals(ALL)) {
+            return ALL;
+        }
+        return result.equals(DEFAULT) ? DEFAULT : Collections.unmodifiableSet(result);
+    }
+
+    private static UserField byJsonName(String name) {
+        for (UserField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Неизвестное поле пользователя: " + name);
+    }
+}
@@ -1,17 +1,23 @@
 package ru.yandex.practicum.filmorate.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.cache.CacheDomain;
+import ru.yandex.practicum.filmorate.cache.CacheVersions;
+import ru.yandex.practicum.filmorate.coalescing.RequestCoalescer;
+import ru.yandex.practicum.filmorate.coalescing.SingleFlight;
 import ru.yandex.practicum.filmorate.dto.film.NewFilmRequest;
 import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.dto.film.FilmLikesDto;
 import ru.yandex.practicum.filmorate.dto.film.UpdateFilmRequest;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.mapper.FilmMapper;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmField;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.film.FilmLikeIndex;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.genre.GenreStorage;
 import ru.yandex.practicum.filmorate.storage.mpa.MpaStorage;
@@ -28,32 +34,83 @@ public class FilmService {
     private final UserStorage userStorage;
     private final GenreStorage genreStorage;
     private final MpaStorage mpaStorage;
+    private final FilmLikeIndex likeIndex;
+    private final CacheVersions cacheVersions;
+    private final SingleFlight<Long, FilmDto> filmById;
+    private final SingleFlight<Integer, Collection<FilmDto>> popularFilms;
     private static final LocalDate FIRST_FILM_DATE = LocalDate.of(1895, 12, 28);
-
-    public FilmService(@Qualifier("filmDbStorage") FilmStorage filmStorage,
-                       @Qualifier("userDbStorage") UserStorage userStorage,
-                       @Qualifier("genreDbStorage") GenreStorage genreStorage,
-                       @Qualifier("mpaDbStorage") MpaStorage mpaStorage) {
+    private static final int MAX_IDS = 1000;
+    private static final int DEFAULT_LIKES_PAGE = 100;
+    private static final int MAX_LIKES_PAGE = 1000;
+
+    public FilmService(FilmStorage filmStorage,
+                       UserStorage userStorage,
+                       GenreStorage genreStorage,
+                       MpaStorage mpaStorage,
+                       FilmLikeIndex likeIndex,
+                       CacheVersions cacheVersions,
+                       RequestCoalescer coalescer) {
         this.filmStorage = filmStorage;
         this.userStorage = userStorage;
         this.genreStorage = genreStorage;
         this.mpaStorage = mpaStorage;
+        this.likeIndex = likeIndex;
+        this.cacheVersions = cacheVersions;
+        this.filmById = coalescer.create("film-by-id", FilmMapper::copyFilmDto);
+        this.popularFilms = coalescer.create("popular-films",
+                films -> films.stream().map(FilmMapper::copyFilmDto).toList());
     }
 
     public Collection<FilmDto> findAllFilms() {
+        return findAllFilms(FilmField.DEFAULT);
+    }
+
+    public Collection<FilmDto> findAllFilms(Set<FilmField> fields) {
         log.debug("Получение списка фильмов");
-        Collection<Film> films = filmStorage.findAllFilms();
+        List<FilmDto> filmDtos = fields.containsAll(FilmField.DEFAULT)
+                ? filmStorage.findAllFilmDtos()
+                : mapFilmsToDtos(filmStorage.findAllFilms(fields));
 
-        if (films.isEmpty()) {
+        if (filmDtos.isEmpty()) {
             log.info("Не найдено ни одного фильма");
             return Collections.emptyList();
         }
 
-        List<FilmDto> filmDtos = mapFilmsToDtosWithGenres(films);
+        loadRelations(filmDtos, fields);
         log.info("Возвращено {} фильмов", filmDtos.size());
         return filmDtos;
     }
 
+    public List<FilmDto> findFilmsByIds(List<Long> ids) {
+        return findFilmsByIds(ids, FilmField.DEFAULT);
+    }
+
+    public List<FilmDto> findFilmsByIds(List<Long> ids, Set<FilmField> fields) {
+        log.debug("Получение {} фильмов по списку ID", ids.size());
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("За один запрос можно получить не более " + MAX_IDS + " фильмов");
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        List<FilmDto> found = fields.containsAll(FilmField.DEFAULT)
+                ? filmStorage.findFilmDtosByIds(uniqueIds)
+                : mapFilmsToDtos(filmStorage.findFilmsByIds(uniqueIds, fields));
+        Map<Long, FilmDto> filmsById = new HashMap<>();
+        for (FilmDto dto : loadRelations(found, fields)) {
+            filmsById.put(dto.getId(), dto);
+        }
+
+        List<FilmDto> filmDtos = new ArrayList<>(filmsById.size());
+        for (Long id : uniqueIds) {
+            FilmDto dto = filmsById.get(id);
+            if (dto != null) {
+                filmDtos.add(dto);
+            }
+        }
+        log.info("Возвращено {} фильмов из {} запрошенных", filmDtos.size(), uniqueIds.size());
+        return filmDtos;
+    }
+
     public FilmDto createFilm(NewFilmRequest request) {
         log.debug("Запись фильма {}", request.getName());
         validateReleaseDate(request.getReleaseDate());
@@ -69,8 +126,10 @@ public class FilmService {
         if (request.getGenres() != null && !request.getGenres().isEmpty()) {
             addGenresToFilm(createdFilm, request.getGenres());
         }
+        cacheVersions.invalidate(CacheDomain.FILMS);
 
         log.trace("Фильм '{}' успешно создан", createdFilm.getName());
+        createdFilm.setLikeCount(0L);
         return FilmMapper.mapToFilmDto(createdFilm);
     }
 
@@ -109,7 +168,6 @@ public class FilmService {
 
         Set<Long> validGenreIds = validateGenreIds(genreIds);
 
-
         if (!validGenreIds.isEmpty()) {
             filmStorage.addFilmGenres(film.getId(), validGenreIds);
         }
@@ -154,18 +212,59 @@ public class FilmService {
         }
 
         updatedFilm = filmStorage.updateFilm(updatedFilm);
+        cacheVersions.invalidate(CacheDomain.FILMS);
 
         return FilmMapper.mapToFilmDto(updatedFilm);
     }
 
     public FilmDto findFilmById(Long id) {
+        return findFilmById(id, FilmField.DEFAULT);
+    }
+
+    public FilmDto findFilmById(Long id, Set<FilmField> fields) {
+        if (fields.equals(FilmField.DEFAULT)) {
+            return filmById.execute(id, () -> loadFilmById(id, fields));
+        }
+        return loadFilmById(id, fields);
+    }
+
+    private FilmDto loadFilmById(Long id, Set<FilmField> fields) {
         log.debug("Поиск фильма по ID {}", id);
-        Film film = filmStorage.findFilmById(id)
+        Optional<Film> found = fields.containsAll(FilmField.DEFAULT)
+                ? filmStorage.findFilmById(id)
+                : filmStorage.findFilmsByIds(List.of(id), fields).stream().findFirst();
+        Film film = found.orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден"));
+        if (fields.contains(FilmField.GENRES)) {
+            Optional<Set<Genre>> genres = genreStorage.findGenresByFilmId(film.getId());
+            Set<Genre> genreSet = genres.orElse(Collections.emptySet());
+            film.setGenres(new LinkedHashSet<>(genreSet));
+        }
+        FilmDto dto = FilmMapper.mapToFilmDto(film);
+        if (fields.contains(FilmField.LIKES)) {
+            dto.setLikes(filmStorage.findAllLikes(film));
+        }
+        return dto;
+    }
+
+    public FilmLikesDto getLikes(Long id, Long after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIKES_PAGE : limit;
+        if (pageSize <= 0 || pageSize > MAX_LIKES_PAGE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_LIKES_PAGE);
+        }
+        long from = after == null ? 0 : after;
+        log.debug("Получение лайков фильма ID={} после пользователя {}", id, from);
+        filmStorage.findFilmById(id)
                 .orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден"));
-        Optional<Set<Genre>> genres = genreStorage.findGenresByFilmId(film.getId());
-        Set<Genre> genreSet = genres.orElse(Collections.emptySet());
-        film.setGenres(new LinkedHashSet<>(genreSet));
-        return FilmMapper.mapToFilmDto(film);
+
+        List<Long> userIds = filmStorage.findLikers(id, from, pageSize + 1);
+        FilmLikesDto page = new FilmLikesDto();
+        page.setFilmId(id);
+        if (userIds.size() > pageSize) {
+            userIds = userIds.subList(0, pageSize);
+            page.setNext(userIds.get(pageSize - 1));
+        }
+        page.setUserIds(userIds);
+        return page;
     }
 
     public void addLike(Long id, Long userId) {
@@ -175,6 +274,8 @@ public class FilmService {
                 .orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден"));
 
         filmStorage.addLike(id, userId);
+        likeIndex.onLikeAdded(id, userId);
+        cacheVersions.invalidate(CacheDomain.FILMS);
 
         log.info("Пользователь ID={} поставил лайк фильму ID={}", userId, id);
     }
@@ -186,49 +287,74 @@ public class FilmService {
                 .orElseThrow(() -> new NotFoundException("Фильм с ID " + filmId + " не найден"));
 
         filmStorage.removeLike(filmId, userId);
+        likeIndex.onLikeRemoved(filmId, userId);
+        cacheVersions.invalidate(CacheDomain.FILMS);
 
         log.info("Пользователь ID={} убрал лайк фильму ID={}", userId, filmId);
     }
 
     public Collection<FilmDto> getPopularFilms(int count) {
+        return getPopularFilms(count, FilmField.DEFAULT);
+    }
+
+    public Collection<FilmDto> getPopularFilms(int count, Set<FilmField> fields) {
+        if (fields.equals(FilmField.DEFAULT)) {
+            return popularFilms.execute(count, () -> loadPopularFilms(count, fields));
+        }
+        return loadPopularFilms(count, fields);
+    }
+
+    private Collection<FilmDto> loadPopularFilms(int count, Set<FilmField> fields) {
         log.debug("Получаем список из первых {} фильмов по количеству лайков", count);
         if (count <= 0) {
             throw new ValidationException("Количество фильмов должно быть больше 0");
         }
 
-        Collection<Film> films = filmStorage.getPopularFilms(count);
+        List<FilmDto> filmDtos = fields.containsAll(FilmField.DEFAULT)
+                ? filmStorage.getPopularFilmDtos(count)
+                : mapFilmsToDtos(filmStorage.getPopularFilms(count, fields));
 
-        if (films.isEmpty()) {
+        if (filmDtos.isEmpty()) {
             log.warn("Не найдено популярных фильмов (запрос: {})", count);
             return Collections.emptyList();
         }
 
-        List<FilmDto> filmDtos = mapFilmsToDtosWithGenres(films);
+        loadRelations(filmDtos, fields);
         log.info("Возвращено {} популярных фильмов (запрос: {})", filmDtos.size(), count);
         return filmDtos;
     }
 
-    private List<FilmDto> mapFilmsToDtosWithGenres(Collection<Film> films) {
-        if (films.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> filmIds = films.stream()
-                .map(Film::getId)
+    private List<FilmDto> mapFilmsToDtos(Collection<Film> films) {
+        return films.stream()
+                .map(FilmMapper::mapToFilmDto)
                 .collect(Collectors.toList());
+    }
 
-        Map<Long, Set<Genre>> filmGenresMap = genreStorage.findGenresByFilmIds(filmIds);
+    private List<FilmDto> loadRelations(List<FilmDto> filmDtos, Set<FilmField> fields) {
+        if (filmDtos.isEmpty() || !fields.contains(FilmField.GENRES) && !fields.contains(FilmField.LIKES)) {
+            return filmDtos;
+        }
 
-        return films.stream()
-                .map(film -> {
-                    FilmDto dto = FilmMapper.mapToFilmDto(film);
-                    Set<Genre> genres = filmGenresMap.getOrDefault(
-                            film.getId(),
-                            Collections.emptySet()
-                    );
-                    dto.setGenres(new LinkedHashSet<>(genres));
-                    return dto;
-                })
+        List<Long> filmIds = filmDtos.stream()
+                .map(FilmDto::getId)
                 .collect(Collectors.toList());
+
+        Map<Long, Set<Genre>> filmGenresMap = fields.contains(FilmField.GENRES)
+                ? genreStorage.findGenresByFilmIds(filmIds)
+                : Collections.emptyMap();
+        Map<Long, Set<Long>> filmLikesMap = fields.contains(FilmField.LIKES)
+                ? filmStorage.findLikesByFilmIds(filmIds)
+                : Collections.emptyMap();
+
+        for (FilmDto dto : filmDtos) {
+            if (fields.contains(FilmField.GENRES)) {
+                Set<Genre> genres = filmGenresMap.getOrDefault(dto.getId(), Collections.emptySet());
+                dto.setGenres(genres instanceof LinkedHashSet<Genre> ordered ? ordered : new LinkedHashSet<>(genres));
+            }
+            if (fields.contains(FilmField.LIKES)) {
+                dto.setLikes(filmLikesMap.getOrDefault(dto.getId(), Collections.emptySet()));
+            }
+        }
+        return filmDtos;
     }
 }
@@ -1,18 +1,18 @@
 package ru.yandex.practicum.filmorate.service;
 
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.coalescing.RequestCoalescer;
+import ru.yandex.practicum.filmorate.coalescing.SingleFlight;
 import ru.yandex.practicum.filmorate.dto.user.NewUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UpdateUserRequest;
 import ru.yandex.practicum.filmorate.dto.user.UserDto;
-import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
-import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.mapper.UserMapper;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
+import ru.yandex.practicum.filmorate.storage.film.FilmLikeIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
 import java.util.*;
@@ -21,26 +21,65 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 public class UserService {
+    private static final int MAX_LIKE_CHECKS = 1000;
+    private static final int MAX_IDS = 1000;
+    private static final int DEFAULT_FRIENDS_PAGE = 100;
+    private static final int MAX_FRIENDS_PAGE = 1000;
     private final UserStorage userStorage;
+    private final FilmLikeIndex likeIndex;
+    private final SingleFlight<Long, UserDto> userById;
 
-    public UserService(@Qualifier("userDbStorage") UserStorage userStorage) {
+    public UserService(UserStorage userStorage, FilmLikeIndex likeIndex,
+                       RequestCoalescer coalescer) {
         this.userStorage = userStorage;
+        this.likeIndex = likeIndex;
+        this.userById = coalescer.create("user-by-id", UserMapper::copyUserDto);
     }
 
     public Collection<UserDto> findAllUsers() {
+        return findAllUsers(UserField.DEFAULT);
+    }
+
+    public Collection<UserDto> findAllUsers(Set<UserField> fields) {
         log.debug("Получение списка пользователей");
-        return userStorage.findAllUsers()
+        return userStorage.findAllUsers(fields)
                 .stream()
-                .map(UserMapper::mapToUserDto)
+                .map(user -> UserMapper.mapToUserDto(user, fields))
                 .collect(Collectors.toList());
     }
 
+    public List<UserDto> findUsersByIds(List<Long> ids) {
+        return findUsersByIds(ids, UserField.DEFAULT);
+    }
+
+    public List<UserDto> findUsersByIds(List<Long> ids, Set<UserField> fields) {
+        log.debug("Получение {} пользователей по списку ID", ids.size());
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("За один запрос можно получить не более " + MAX_IDS + " пользователей");
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userStorage.findUsersByIds(uniqueIds, fields)) {
+            usersById.put(user.getId(), user);
+        }
+
+        List<UserDto> userDtos = new ArrayList<>(usersById.size());
+        for (Long id : uniqueIds) {
+            User user = usersById.get(id);
+            if (user != null) {
+                userDtos.add(UserMapper.mapToUserDto(user, fields));
+            }
+        }
+        return userDtos;
+    }
+
     public UserDto createUser(NewUserRequest request) {
         log.debug("Создание нового пользователя {}", request.getName());
-        validateUniqueEmail(request.getEmail());
 
         User user = UserMapper.mapToUser(request);
         user = userStorage.createUser(user);
+        user.setFriendCount(0L);
 
         return UserMapper.mapToUserDto(user);
     }
@@ -49,23 +88,27 @@ public class UserService {
         User existingUser = userStorage.findUserById(request.getId())
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        if (request.getEmail() != null && !request.getEmail().equals(existingUser.getEmail())) {
-            validateUniqueEmail(request.getEmail());
-        }
         User updatedUser = UserMapper.updateUserFields(existingUser, request);
         updatedUser = userStorage.updateUser(updatedUser);
 
         return UserMapper.mapToUserDto(updatedUser);
     }
 
-    private void validateUniqueEmail(String email) {
-        userStorage.findUserByEmail(email)
-                .ifPresent(user -> {
-                    throw new DuplicatedDataException("Этот имейл уже используется.");
-                });
+    public UserDto findUserById(Long id) {
+        return userById.execute(id, () -> loadUserById(id));
     }
 
-    public UserDto findUserById(Long id) {
+    public UserDto findUserById(Long id, Set<UserField> fields) {
+        if (fields.equals(UserField.DEFAULT)) {
+            return findUserById(id);
+        }
+        return userStorage.findUsersByIds(List.of(id), fields).stream()
+                .findFirst()
+                .map(user -> UserMapper.mapToUserDto(user, fields))
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не найден"));
+    }
+
+    private UserDto loadUserById(Long id) {
         log.debug("Поиск пользователя c ID{}", id);
         User user = userStorage.findUserById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не найден"));
@@ -73,50 +116,51 @@ public class UserService {
         return UserMapper.mapToUserDto(user);
     }
 
-    @Transactional
     public void addFriend(Long id, Long friendId) {
         log.debug("Пользователь {} отправляет заявку в друзья пользователю {}", id, friendId);
 
-        User user = userStorage.findUserById(id)
+        userStorage.findUserById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
         userStorage.findUserById(friendId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + friendId + " не найден"));
 
         userStorage.tryAddFriendship(id, friendId);
 
-        user.getFriends().add(friendId);
         log.info("Пользователь {} добавил в друзья пользователя {}", id, friendId);
     }
 
     public void removeFriend(Long id, Long friendId) {
         log.debug("Пользователь {} удаляет из друзей пользователя {}", id, friendId);
 
-        User user = userStorage.findUserById(id)
+        userStorage.findUserById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
         userStorage.findUserById(friendId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + friendId + " не найден"));
 
-        if (!user.getFriends().contains(friendId)) {
+        if (!userStorage.removeFriendship(id, friendId)) {
+            log.debug("Пользователь {} не был в друзьях у пользователя {}", friendId, id);
             return;
         }
 
-        boolean isRemoved = userStorage.removeFriendship(id, friendId);
-
-        if (!isRemoved) {
-            throw new InternalServerException("Не удалось удалить дружбу из БД");
-        }
-
         log.debug("Пользователь {} успешно удалён из друзей пользователя {}", friendId, id);
     }
 
     public Collection<UserDto> getFriends(Long id) {
+        return getFriends(id, null, null);
+    }
+
+    public Collection<UserDto> getFriends(Long id, Long after, Integer limit) {
         if (id == null) {
             throw new ValidationException("Id пользователя должен быть указан.");
         }
+        int pageSize = limit == null ? DEFAULT_FRIENDS_PAGE : limit;
+        if (pageSize <= 0 || pageSize > MAX_FRIENDS_PAGE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_FRIENDS_PAGE);
+        }
         User user = userStorage.findUserById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
 
-        Collection<User> friends = userStorage.findFriendsByUserId(id);
+        Collection<User> friends = userStorage.findFriendsByUserId(id, after == null ? 0 : after, pageSize);
 
         if (friends.isEmpty()) {
             log.trace("У пользователя " + user.getName() + " нет друзей");
@@ -143,4 +187,15 @@ public class UserService {
 
         return commonFriends;
     }
+
+    public Map<Long, Boolean> findLikedFilms(Long id, List<Long> filmIds) {
+        log.debug("Проверка лайков пользователя ID={} для {} фильмов", id, filmIds.size());
+        if (filmIds.size() > MAX_LIKE_CHECKS) {
+            throw new ValidationException("За один запрос можно проверить не более " + MAX_LIKE_CHECKS + " фильмов");
+        }
+        userStorage.findUserById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не найден"));
+
+        return likeIndex.hasLiked(id, filmIds);
+    }
 }
@@ -1,30 +1,34 @@
 package ru.yandex.practicum.filmorate.storage;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.storage.metrics.SqlArgsProvider;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Optional;
 
-@RequiredArgsConstructor
 public class BaseDbStorage<T> {
     protected final JdbcTemplate jdbc;
     protected final RowMapper<T> mapper;
     private final Class<T> entityType;
 
+    public BaseDbStorage(JdbcTemplate jdbc, RowMapper<T> mapper, Class<T> entityType) {
+        this.jdbc = jdbc;
+        this.mapper = mapper;
+        this.entityType = entityType;
+    }
+
     protected Optional<T> findOne(String query, Object... params) {
-        try {
-            T result = jdbc.queryForObject(query, mapper, params);
-            return Optional.ofNullable(result);
-        } catch (EmptyResultDataAccessException ignored) {
-            return Optional.empty();
-        }
+        return DataAccessUtils.optionalResult(jdbc.query(query, mapper, params));
     }
 
     protected List<T> findMany(String query, Object... params) {
@@ -38,13 +42,7 @@ public class BaseDbStorage<T> {
 
     protected long insert(String query, Object... params) {
         GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
-        jdbc.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-            for (int idx = 0; idx < params.length; idx++) {
-                ps.setObject(idx + 1, params[idx]);
-            }
-            return ps;
-        }, keyHolder);
+        jdbc.update(new InsertStatementCreator(query, params), keyHolder);
 
         Long id = keyHolder.getKeyAs(Long.class);
         if (id != null) {
@@ -60,4 +58,27 @@ public class BaseDbStorage<T> {
             throw new InternalServerException("Не удалось обновить данные");
         }
     }
+
+    // Отдаёт текст и параметры запроса, чтобы вставки попадали в метрики под своим именем
+    private record InsertStatementCreator(String query, Object[] params) implements PreparedStatementCreator,
+            SqlProvider, SqlArgsProvider {
+        @Override
+        public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+            PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            for (int idx = 0; idx < params.length; idx++) {
+                ps.setObject(idx + 1, params[idx]);
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return query;
+        }
+
+        @Override
+        public Object[] getSqlArgs() {
+            return params;
+        }
+    }
 }
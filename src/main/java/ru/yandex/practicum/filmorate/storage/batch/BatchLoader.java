@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.storage.batch;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.storage.metrics.QueryCounter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public class BatchLoader<K, V> {
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final Function<K, Optional<V>> singleFunction;
+    private final BatchProperties properties;
+    private final UnaryOperator<V> copier;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private Map<K, Slot<V>> pending;
+    private int dispatching;
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Function<K, Optional<V>> singleFunction,
+                       BatchProperties properties) {
+        this(batchFunction, singleFunction, properties, UnaryOperator.identity());
+    }
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Function<K, Optional<V>> singleFunction,
+                       BatchProperties properties, UnaryOperator<V> copier) {
+        this.batchFunction = batchFunction;
+        this.singleFunction = singleFunction;
+        this.properties = properties;
+        this.copier = copier;
+    }
+
+    public Optional<V> load(K key) {
+        // Ведущий поток не увидел бы незакоммиченных изменений чужой транзакции
+        if (!properties.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return singleFunction.apply(key);
+        }
+
+        Map<K, Slot<V>> batch;
+        Slot<V> slot;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = pending == null;
+            if (leader) {
+                pending = new LinkedHashMap<>();
+            }
+            batch = pending;
+            slot = batch.computeIfAbsent(key, k -> new Slot<>());
+            slot.callers++;
+            slot.counts.addAll(QueryCounter.capture());
+            if (batch.size() >= properties.getMaxSize()) {
+                pending = null;
+                changed.signalAll();
+            }
+            if (leader) {
+                awaitTurn(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            dispatch(batch);
+        }
+        V value = await(slot.future);
+        return Optional.ofNullable(value != null && slot.callers > 1 ? copier.apply(value) : value);
+    }
+
+    private void awaitTurn(Map<K, Slot<V>> batch) {
+        long remaining = properties.getWindow().toNanos();
+        try {
+            while (pending == batch && dispatching > 0 && remaining > 0) {
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pending == batch) {
+            pending = null;
+        }
+        dispatching++;
+    }
+
+    private void dispatch(Map<K, Slot<V>> batch) {
+        // Запросы пачки засчитываются каждому участнику, а не только ведущему потоку
+        Set<QueryCounter.Counts> counts = new HashSet<>();
+        batch.values().forEach(slot -> counts.addAll(slot.counts));
+        try {
+            Map<K, V> values = QueryCounter.countFor(counts, () -> batchFunction.apply(batch.keySet()));
+            batch.forEach((key, slot) -> slot.future.complete(values.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.values().forEach(slot -> slot.future.completeExceptionally(e));
+        } finally {
+            lock.lock();
+            try {
+                dispatching--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final Set<QueryCounter.Counts> counts = new HashSet<>();
+        private int callers;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.batch")
+public class BatchProperties {
+    private boolean enabled = true;
+    private Duration window = Duration.ofMillis(2);
+    private int maxSize = 100;
+    private int chunkSize = 500;
+    private boolean parallelChunks = false;
+    private int chunkParallelism = 2;
+    private int chunkQueueSize = 64;
+}
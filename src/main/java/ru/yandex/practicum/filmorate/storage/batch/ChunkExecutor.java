@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.storage.batch;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.metrics.QueryCounter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ChunkExecutor implements DisposableBean {
+    private final ThreadPoolExecutor pool;
+
+    @Autowired
+    public ChunkExecutor(BatchProperties properties, DataSource dataSource) {
+        this(Math.min(properties.getChunkParallelism(), connectionBudget(dataSource)), properties.getChunkQueueSize());
+    }
+
+    public ChunkExecutor(int parallelism, int queueSize) {
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, parallelism);
+        pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "chunk-query-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        log.debug("Части списков ID выполняются не более чем в {} потоках", size);
+    }
+
+    public <R> CompletableFuture<R> supply(Supplier<R> task) {
+        Collection<QueryCounter.Counts> counts = QueryCounter.capture();
+        return CompletableFuture.supplyAsync(() -> QueryCounter.countFor(counts, task), pool);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private static int connectionBudget(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return Math.max(1, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() / 4);
+            }
+        } catch (SQLException e) {
+            log.debug("Не удалось узнать размер пула соединений: {}", e.getMessage());
+        }
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.yandex.practicum.filmorate.storage.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class IdArrayQuery {
+    private final JdbcTemplate jdbc;
+    private final BatchProperties properties;
+    private final ChunkExecutor executor;
+
+    public IdArrayQuery(JdbcTemplate jdbc, BatchProperties properties, ChunkExecutor executor) {
+        this.jdbc = jdbc;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    public <R> List<R> query(String sql, RowMapper<R> mapper, Collection<Long> ids) {
+        return query(sql, new RowMapperResultSetExtractor<>(mapper), ids);
+    }
+
+    public <R> List<R> query(String sql, ResultSetExtractor<List<R>> extractor, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long[]> chunks = chunks(ids);
+        if (chunks.size() == 1) {
+            return jdbc.query(sql, extractor, (Object) chunks.get(0));
+        }
+
+        List<R> result = new ArrayList<>();
+        if (!properties.isParallelChunks() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (Long[] chunk : chunks) {
+                result.addAll(jdbc.query(sql, extractor, (Object) chunk));
+            }
+            return result;
+        }
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(chunks.size());
+        for (Long[] chunk : chunks) {
+            futures.add(executor.supply(() -> jdbc.query(sql, extractor, (Object) chunk)));
+        }
+        try {
+            for (CompletableFuture<List<R>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    // Обработчик строк обычно копит результат в общей коллекции, поэтому части всегда идут по очереди
+    public void query(String sql, RowCallbackHandler handler, Collection<Long> ids) {
+        for (Long[] chunk : chunks(ids)) {
+            jdbc.query(sql, handler, (Object) chunk);
+        }
+    }
+
+    private List<Long[]> chunks(Collection<Long> ids) {
+        Long[] all = ids.toArray(new Long[0]);
+        int size = Math.max(1, properties.getChunkSize());
+        if (all.length <= size) {
+            return all.length == 0 ? Collections.emptyList() : Collections.singletonList(all);
+        }
+
+        List<Long[]> chunks = new ArrayList<>();
+        for (int from = 0; from < all.length; from += size) {
+            Long[] chunk = new Long[Math.min(size, all.length - from)];
+            System.arraycopy(all, from, chunk, 0, chunk.length);
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
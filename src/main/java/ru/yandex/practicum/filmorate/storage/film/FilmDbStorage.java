@@ -1,38 +1,106 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
-import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmField;
 import ru.yandex.practicum.filmorate.storage.BaseDbStorage;
-import ru.yandex.practicum.filmorate.storage.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.batch.BatchLoader;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+import ru.yandex.practicum.filmorate.storage.batch.IdArrayQuery;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmDtoExtractor;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmProjectionRowMapper;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+import ru.yandex.practicum.filmorate.util.SortedLongArraySet;
 
 import java.util.*;
 
 @Repository
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "db", matchIfMissing = true)
 public class FilmDbStorage extends BaseDbStorage<Film> implements FilmStorage {
-    private static final String FIND_ALL_QUERY = "SELECT DISTINCT f.film_id, f.name, f.description, f.releaseDate, f.duration," +
-            " r.id AS rating_id, r.name AS rating_name FROM films f LEFT JOIN ratings r ON f.rating_id = r.id " +
+    private static final String LIKE_COUNT_COLUMN = "(SELECT COUNT(*) FROM film_likes l " +
+            "WHERE l.film_id = f.film_id) AS like_count";
+    private static final String FIND_ALL_QUERY = "/* FilmDbStorage.FIND_ALL_QUERY */ " +
+            "SELECT DISTINCT f.film_id, f.name, f.description, f.releaseDate, f.duration," +
+            " r.id AS rating_id, r.name AS rating_name, " + LIKE_COUNT_COLUMN +
+            " FROM films f LEFT JOIN ratings r ON f.rating_id = r.id " +
             "LEFT JOIN film_genres AS fg ON f.film_id = fg.film_id LEFT JOIN genres AS g ON fg.genre_id = g.genre_id";
-    private static final String FIND_BY_ID_QUERY = "SELECT f.film_id, f.name, f.description, f.releaseDate, f.duration," +
-            " r.id AS rating_id, r.name AS rating_name FROM films f LEFT JOIN ratings r ON f.rating_id = r.id " +
+    private static final String FIND_BY_ID_QUERY = "/* FilmDbStorage.FIND_BY_ID_QUERY */ " +
+            "SELECT f.film_id, f.name, f.description, f.releaseDate, f.duration," +
+            " r.id AS rating_id, r.name AS rating_name, " + LIKE_COUNT_COLUMN +
+            " FROM films f LEFT JOIN ratings r ON f.rating_id = r.id " +
             "WHERE f.film_id = ?";
-    private static final String INSERT_QUERY = "INSERT INTO films(name, description, releaseDate, duration, rating_id)" +
+    private static final String FIND_BY_IDS_QUERY = "/* FilmDbStorage.FIND_BY_IDS_QUERY */ " +
+            "SELECT f.film_id, f.name, f.description, f.releaseDate, f.duration," +
+            " r.id AS rating_id, r.name AS rating_name, " + LIKE_COUNT_COLUMN +
+            " FROM films f LEFT JOIN ratings r ON f.rating_id = r.id " +
+            "WHERE f.film_id = ANY(?)";
+    private static final String INSERT_QUERY = "/* FilmDbStorage.INSERT_QUERY */ " +
+            "INSERT INTO films(name, description, releaseDate, duration, rating_id)" +
             "VALUES (?, ?, ?, ?, ?)";
-    private static final String UPDATE_QUERY = "UPDATE films SET name = ?, description = ?, releaseDate = ?, duration " +
+    private static final String UPDATE_QUERY = "/* FilmDbStorage.UPDATE_QUERY */ " +
+            "UPDATE films SET name = ?, description = ?, releaseDate = ?, duration " +
             "= ?, rating_id = ? WHERE film_id = ?";
-    private static final String ADD_FILM_GENRE = "INSERT INTO film_genres (film_id, genre_id) VALUES (?, ?)";
-    private static final String FIND_LIKES = "SELECT user_id FROM film_likes WHERE film_id = ?";
-    private static final String ADD_LIKES = "INSERT INTO film_likes (film_id, user_id) VALUES (?, ?)";
-    private static final String REMOVE_LIKE = "DELETE FROM film_likes WHERE film_id = ? AND user_id = ?";
-    private static final String GET_POPULAR = "SELECT f.*, r.name AS rating_name FROM films AS f " +
+    private static final String ADD_FILM_GENRE = "/* FilmDbStorage.ADD_FILM_GENRE */ " +
+            "INSERT INTO film_genres (film_id, genre_id) VALUES (?, ?)";
+    private static final String FIND_LIKES = "/* FilmDbStorage.FIND_LIKES */ " +
+            "SELECT user_id FROM film_likes WHERE film_id = ?";
+    private static final String ADD_LIKES = "/* FilmDbStorage.ADD_LIKES */ " +
+            "MERGE INTO film_likes l USING (VALUES (CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT))) AS s (film_id, user_id) ON l.film_id = s.film_id AND l.user_id = s.user_id " +
+            "WHEN NOT MATCHED THEN INSERT (film_id, user_id) VALUES (s.film_id, s.user_id)";
+    private static final String FIND_LIKES_BY_FILM_IDS = "/* FilmDbStorage.FIND_LIKES_BY_FILM_IDS */ " +
+            "SELECT film_id, user_id FROM film_likes WHERE film_id = ANY(?)";
+    private static final String REMOVE_LIKE = "/* FilmDbStorage.REMOVE_LIKE */ " +
+            "DELETE FROM film_likes WHERE film_id = ? AND user_id = ?";
+    private static final String FIND_LIKERS = "/* FilmDbStorage.FIND_LIKERS */ " +
+            "SELECT user_id FROM film_likes WHERE film_id = ? AND user_id > ? " +
+            "ORDER BY user_id LIMIT ?";
+    private static final String GET_POPULAR = "/* FilmDbStorage.GET_POPULAR */ SELECT f.*, r.name AS rating_name, " +
+            "liked_films.likes AS like_count FROM films AS f " +
             "INNER JOIN ratings AS r ON f.rating_id = r.id INNER JOIN ( SELECT l.film_id, COUNT(l.user_id) AS likes " +
             "FROM film_likes AS l GROUP BY l.film_id ORDER BY COUNT(l.user_id) DESC LIMIT ? ) AS liked_films " +
             "ON f.film_id = liked_films.film_id ORDER BY liked_films.likes DESC";
+    private static final String FIND_ALL_PROJECTED = "/* FilmDbStorage.FIND_ALL_PROJECTED */ " +
+            "SELECT %s FROM films f LEFT JOIN ratings r ON f.rating_id = r.id";
+    private static final String FIND_BY_IDS_PROJECTED = "/* FilmDbStorage.FIND_BY_IDS_PROJECTED */ " +
+            "SELECT %s FROM films f LEFT JOIN ratings r " +
+            "ON f.rating_id = r.id WHERE f.film_id = ANY(?)";
+    private static final String GET_POPULAR_PROJECTED = "/* FilmDbStorage.GET_POPULAR_PROJECTED */ " +
+            "SELECT %s FROM films AS f " +
+            "INNER JOIN ratings AS r ON f.rating_id = r.id INNER JOIN ( SELECT l.film_id, COUNT(l.user_id) AS likes " +
+            "FROM film_likes AS l GROUP BY l.film_id ORDER BY COUNT(l.user_id) DESC LIMIT ? ) AS liked_films " +
+            "ON f.film_id = liked_films.film_id ORDER BY liked_films.likes DESC";
+
+    private static final Set<FilmField> FULL_ROW = Collections.unmodifiableSet(EnumSet.of(FilmField.NAME,
+            FilmField.DESCRIPTION, FilmField.RELEASE_DATE, FilmField.DURATION, FilmField.MPA, FilmField.LIKE_COUNT));
 
-    public FilmDbStorage(JdbcTemplate jdbc, RowMapper<Film> mapper) {
-        super(jdbc, mapper, Film.class);
+    private final BatchLoader<Long, Film> filmLoader;
+    private final IdArrayQuery idQuery;
+
+    public FilmDbStorage(JdbcTemplate jdbc, RowMapper<Film> mapper, BatchProperties batchProperties,
+                         ChunkExecutor chunkExecutor) {
+        super(jdbc, withLikeCount(mapper), Film.class);
+        this.idQuery = new IdArrayQuery(jdbc, batchProperties, chunkExecutor);
+        this.filmLoader = new BatchLoader<>(this::findFilmsByIdsAsMap, id -> findOne(FIND_BY_ID_QUERY, id),
+                batchProperties, FilmMapper::copyFilm);
+    }
+
+    private static RowMapper<Film> withLikeCount(RowMapper<Film> mapper) {
+        return (rs, rowNum) -> {
+            Film film = mapper.mapRow(rs, rowNum);
+            if (film != null) {
+                film.setLikeCount(rs.getLong("like_count"));
+            }
+            return film;
+        };
     }
 
     @Override
@@ -70,7 +138,91 @@ public class FilmDbStorage extends BaseDbStorage<Film> implements FilmStorage {
 
     @Override
     public Optional<Film> findFilmById(Long id) {
-        return findOne(FIND_BY_ID_QUERY, id);
+        return filmLoader.load(id);
+    }
+
+    @Override
+    public Collection<Film> findFilmsByIds(Collection<Long> ids) {
+        return idQuery.query(FIND_BY_IDS_QUERY, mapper, ids);
+    }
+
+    private Map<Long, Film> findFilmsByIdsAsMap(Collection<Long> ids) {
+        Map<Long, Film> films = new HashMap<>();
+        for (Film film : findFilmsByIds(ids)) {
+            films.put(film.getId(), film);
+        }
+        return films;
+    }
+
+    @Override
+    public List<FilmDto> findAllFilmDtos() {
+        return jdbc.query(FIND_ALL_QUERY, new FilmDtoExtractor());
+    }
+
+    @Override
+    public List<FilmDto> findFilmDtosByIds(Collection<Long> ids) {
+        return idQuery.query(FIND_BY_IDS_QUERY, new FilmDtoExtractor(), ids);
+    }
+
+    @Override
+    public List<FilmDto> getPopularFilmDtos(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count должен быть > 0");
+        }
+        return jdbc.query(GET_POPULAR, new FilmDtoExtractor(), count);
+    }
+
+    @Override
+    public Collection<Film> findAllFilms(Set<FilmField> fields) {
+        if (fields.containsAll(FULL_ROW)) {
+            return findAllFilms();
+        }
+        return jdbc.query(String.format(FIND_ALL_PROJECTED, columns(fields)), new FilmProjectionRowMapper(fields));
+    }
+
+    @Override
+    public Collection<Film> findFilmsByIds(Collection<Long> ids, Set<FilmField> fields) {
+        if (fields.containsAll(FULL_ROW)) {
+            return findFilmsByIds(ids);
+        }
+        return idQuery.query(String.format(FIND_BY_IDS_PROJECTED, columns(fields)), new FilmProjectionRowMapper(fields),
+                ids);
+    }
+
+    @Override
+    public Collection<Film> getPopularFilms(int count, Set<FilmField> fields) {
+        if (fields.containsAll(FULL_ROW)) {
+            return getPopularFilms(count);
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count должен быть > 0");
+        }
+        return jdbc.query(String.format(GET_POPULAR_PROJECTED, columns(fields)), new FilmProjectionRowMapper(fields),
+                count);
+    }
+
+    private static String columns(Set<FilmField> fields) {
+        StringJoiner columns = new StringJoiner(", ");
+        columns.add("f.film_id");
+        if (fields.contains(FilmField.NAME)) {
+            columns.add("f.name");
+        }
+        if (fields.contains(FilmField.DESCRIPTION)) {
+            columns.add("f.description");
+        }
+        if (fields.contains(FilmField.RELEASE_DATE)) {
+            columns.add("f.releaseDate");
+        }
+        if (fields.contains(FilmField.DURATION)) {
+            columns.add("f.duration");
+        }
+        if (fields.contains(FilmField.MPA)) {
+            columns.add("r.id AS rating_id").add("r.name AS rating_name");
+        }
+        if (fields.contains(FilmField.LIKE_COUNT)) {
+            columns.add(LIKE_COUNT_COLUMN);
+        }
+        return columns.toString();
     }
 
     @Override
@@ -85,15 +237,34 @@ public class FilmDbStorage extends BaseDbStorage<Film> implements FilmStorage {
     @Override
     public Set<Long> findAllLikes(Film film) {
         List<Long> likes = jdbc.queryForList(FIND_LIKES, Long.class, film.getId());
-        return new HashSet<>(likes);
+        return SortedLongArraySet.copyOf(likes);
     }
 
     @Override
-    public void addLike(Long id, Long userId) {
-        int countOfLikes = jdbc.update(ADD_LIKES, id, userId);
+    public Map<Long, Set<Long>> findLikesByFilmIds(Collection<Long> filmIds) {
+        if (filmIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-        if (countOfLikes == 0) {
-            throw new DuplicatedDataException("Лайк уже поставлен");
+        Map<Long, Set<Long>> likes = new HashMap<>();
+        idQuery.query(FIND_LIKES_BY_FILM_IDS, (RowCallbackHandler) rs -> {
+            likes.computeIfAbsent(rs.getLong("film_id"), id -> new LongHashSet())
+                    .add(rs.getLong("user_id"));
+        }, filmIds);
+        return likes;
+    }
+
+    @Override
+    public List<Long> findLikers(Long filmId, long after, int limit) {
+        return jdbc.queryForList(FIND_LIKERS, Long.class, filmId, after, limit);
+    }
+
+    @Override
+    public void addLike(Long id, Long userId) {
+        try {
+            jdbc.update(ADD_LIKES, id, userId);
+        } catch (DuplicateKeyException e) {
+            // Параллельный такой же запрос успел вставить строку первым
         }
     }
 
@@ -107,6 +278,6 @@ public class FilmDbStorage extends BaseDbStorage<Film> implements FilmStorage {
         if (count <= 0) {
             throw new IllegalArgumentException("count должен быть > 0");
         }
-        return jdbc.query(GET_POPULAR, new FilmRowMapper(), count);
+        return findMany(GET_POPULAR, count);
     }
 }
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.util.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class FilmLikeIndex {
+    private final FilmStorage filmStorage;
+    private final Map<Long, RoaringBitmap> likes = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    public FilmLikeIndex(FilmStorage filmStorage) {
+        this.filmStorage = filmStorage;
+    }
+
+    public boolean hasLiked(Long filmId, Long userId) {
+        RoaringBitmap bitmap = bitmapsFor(List.of(filmId)).get(filmId);
+        synchronized (bitmap) {
+            return bitmap.contains(userId);
+        }
+    }
+
+    public Map<Long, Boolean> hasLiked(Long userId, Collection<Long> filmIds) {
+        Map<Long, RoaringBitmap> bitmaps = bitmapsFor(filmIds);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long filmId : filmIds) {
+            RoaringBitmap bitmap = bitmaps.get(filmId);
+            synchronized (bitmap) {
+                result.put(filmId, bitmap.contains(userId));
+            }
+        }
+        return result;
+    }
+
+    public long likeCount(Long filmId) {
+        RoaringBitmap bitmap = bitmapsFor(List.of(filmId)).get(filmId);
+        synchronized (bitmap) {
+            return bitmap.getCardinality();
+        }
+    }
+
+    public void onLikeAdded(Long filmId, Long userId) {
+        modifications.incrementAndGet();
+        likes.computeIfPresent(filmId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                bitmap.add(userId);
+            }
+            return bitmap;
+        });
+    }
+
+    public void onLikeRemoved(Long filmId, Long userId) {
+        modifications.incrementAndGet();
+        likes.computeIfPresent(filmId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                bitmap.remove(userId);
+            }
+            return bitmap;
+        });
+    }
+
+    public void invalidate() {
+        modifications.incrementAndGet();
+        likes.clear();
+    }
+
+    private Map<Long, RoaringBitmap> bitmapsFor(Collection<Long> filmIds) {
+        Map<Long, RoaringBitmap> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long filmId : filmIds) {
+            RoaringBitmap bitmap = likes.get(filmId);
+            if (bitmap != null) {
+                result.put(filmId, bitmap);
+            } else {
+                missing.add(filmId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long version = modifications.get();
+        Map<Long, Set<Long>> loaded = filmStorage.findLikesByFilmIds(missing);
+        Map<Long, RoaringBitmap> cached = new HashMap<>();
+
+        for (Long filmId : missing) {
+            RoaringBitmap bitmap = new RoaringBitmap();
+            loaded.getOrDefault(filmId, Collections.emptySet()).forEach(bitmap::add);
+            if (likes.putIfAbsent(filmId, bitmap) == null) {
+                cached.put(filmId, bitmap);
+            }
+            result.put(filmId, likes.getOrDefault(filmId, bitmap));
+        }
+
+        // Лайки менялись во время загрузки: отвечаем загруженным, но из индекса убираем, чтобы перечитать позже
+        if (version != modifications.get()) {
+            cached.forEach(likes::remove);
+        }
+        log.trace("В индекс лайков загружено {} фильмов", missing.size());
+        return result;
+    }
+}
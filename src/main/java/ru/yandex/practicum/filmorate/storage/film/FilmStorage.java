@@ -1,8 +1,13 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmField;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -15,13 +20,51 @@ public interface FilmStorage {
 
     Optional<Film> findFilmById(Long id);
 
+    Collection<Film> findFilmsByIds(Collection<Long> ids);
+
     void addFilmGenres(Long filmId, Collection<Long> genreIds);
 
     Set<Long> findAllLikes(Film film);
 
+    Map<Long, Set<Long>> findLikesByFilmIds(Collection<Long> filmIds);
+
     void addLike(Long id, Long userId);
 
     void removeLike(Long filmId, Long userId);
 
     Collection<Film> getPopularFilms(int count);
+
+    // Варианты с набором полей: колонки вне fields можно не читать. Жанры и лайки они не загружают
+    default Collection<Film> findAllFilms(Set<FilmField> fields) {
+        return findAllFilms();
+    }
+
+    default Collection<Film> findFilmsByIds(Collection<Long> ids, Set<FilmField> fields) {
+        return findFilmsByIds(ids);
+    }
+
+    default Collection<Film> getPopularFilms(int count, Set<FilmField> fields) {
+        return getPopularFilms(count);
+    }
+
+    // Полные фильмы сразу в виде DTO, без жанров и лайков. Базе это позволяет не создавать промежуточные Film
+    default List<FilmDto> findAllFilmDtos() {
+        return findAllFilms().stream().map(FilmMapper::mapToFilmDto).toList();
+    }
+
+    default List<FilmDto> findFilmDtosByIds(Collection<Long> ids) {
+        return findFilmsByIds(ids).stream().map(FilmMapper::mapToFilmDto).toList();
+    }
+
+    default List<FilmDto> getPopularFilmDtos(int count) {
+        return getPopularFilms(count).stream().map(FilmMapper::mapToFilmDto).toList();
+    }
+
+    default List<Long> findLikers(Long filmId, long after, int limit) {
+        return findLikesByFilmIds(List.of(filmId)).getOrDefault(filmId, Set.of()).stream()
+                .filter(userId -> userId > after)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
 }
@@ -2,44 +2,60 @@ package ru.yandex.practicum.filmorate.storage.film;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
-import ru.yandex.practicum.filmorate.storage.genre.GenreStorage;
+import ru.yandex.practicum.filmorate.storage.genre.InMemoryGenreStorage;
 import ru.yandex.practicum.filmorate.storage.mpa.MpaStorage;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+import ru.yandex.practicum.filmorate.storage.wal.JournaledStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalCodec;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory")
 @Slf4j
-public class InMemoryFilmStorage implements FilmStorage {
-    private final GenreStorage genreStorage;
+public class InMemoryFilmStorage extends JournaledStorage implements FilmStorage {
+    private static final byte CREATE_FILM = 1;
+    private static final byte UPDATE_FILM = 2;
+    private static final byte ADD_GENRES = 3;
+    private static final byte ADD_LIKE = 4;
+    private static final byte REMOVE_LIKE = 5;
+
+    private final InMemoryGenreStorage genreStorage;
     private final MpaStorage mpaStorage;
     private final Map<Long, Film> films = new HashMap<>();
 
-    public InMemoryFilmStorage(@Qualifier("inMemoryGenreStorage") GenreStorage genreStorage,
-                               @Qualifier("inMemoryMpaStorage")MpaStorage mpaStorage) {
+    public InMemoryFilmStorage(InMemoryGenreStorage genreStorage, MpaStorage mpaStorage, WalProperties walProperties) {
+        super(walProperties, "films");
         this.genreStorage = genreStorage;
         this.mpaStorage = mpaStorage;
     }
 
-    public Collection<Film> findAllFilms() {
-        return films.values();
+    public synchronized Collection<Film> findAllFilms() {
+        return films.values().stream().map(FilmMapper::copyFilm).collect(Collectors.toList());
     }
 
-    public Film createFilm(Film film) {
+    public synchronized Film createFilm(Film film) {
         film.setId(getNextId());
-        films.put(film.getId(), film);
+        Film stored = FilmMapper.copyFilm(film);
+        journal(CREATE_FILM, out -> WalCodec.writeFilm(out, stored), () -> putFilm(stored));
         return film;
     }
 
-    public Film updateFilm(Film updatedFilm) {
-        films.put(updatedFilm.getId(), updatedFilm);
+    public synchronized Film updateFilm(Film updatedFilm) {
+        Film stored = FilmMapper.copyFilm(updatedFilm);
+        journal(UPDATE_FILM, out -> WalCodec.writeFilm(out, stored), () -> putFilm(stored));
         return updatedFilm;
     }
 
@@ -52,21 +68,30 @@ public class InMemoryFilmStorage implements FilmStorage {
         return ++currentMaxId;
     }
 
-    public Optional<Film> findFilmById(Long id) {
-        return Optional.ofNullable(films.get(id));
+    public synchronized Optional<Film> findFilmById(Long id) {
+        return Optional.ofNullable(films.get(id)).map(FilmMapper::copyFilm);
+    }
+
+    @Override
+    public synchronized Collection<Film> findFilmsByIds(Collection<Long> ids) {
+        List<Film> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Film film = films.get(id);
+            if (film != null) {
+                result.add(FilmMapper.copyFilm(film));
+            }
+        }
+        return result;
     }
 
     @Override
-    public void addFilmGenres(Long filmId, Collection<Long> genreIds) {
+    public synchronized void addFilmGenres(Long filmId, Collection<Long> genreIds) {
         Film film = films.get(filmId);
         if (film == null) {
             throw new NotFoundException("Фильм с ID " + filmId + " не найден");
         }
 
-        if (film.getGenres() == null) {
-            film.setGenres(new LinkedHashSet<>());
-        }
-
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
         for (Long genreId : genreIds) {
             if (genreId <= 0) {
                 throw new ValidationException("ID жанра должен быть положительным числом");
@@ -77,61 +102,160 @@ public class InMemoryFilmStorage implements FilmStorage {
                 throw new NotFoundException("Жанр с ID " + genreId + " не найден");
             }
 
-            Genre genre = genreOpt.get();
-
-            film.getGenres().add(genre);
+            genres.add(genreOpt.get());
         }
 
+        journal(ADD_GENRES, out -> {
+            out.writeLong(filmId);
+            WalCodec.writeGenres(out, genres);
+        }, () -> applyGenres(film, genres));
+
         log.debug("К фильму ID={} добавлены жанры: {}", filmId, genreIds);
     }
 
     @Override
-    public Set<Long> findAllLikes(Film film) {
-        Set<Long> likes = film.getLikes();
+    public synchronized Set<Long> findAllLikes(Film film) {
+        Film stored = films.get(film.getId());
+        Set<Long> likes = stored == null ? null : stored.getLikes();
 
         if (likes == null || likes.isEmpty()) {
             log.trace(String.format("У фильма %s нет лайков", film.getName()));
-            return new HashSet<>();
+            return new LongHashSet();
         }
 
+        return new LongHashSet(likes);
+    }
+
+    @Override
+    public synchronized Map<Long, Set<Long>> findLikesByFilmIds(Collection<Long> filmIds) {
+        Map<Long, Set<Long>> likes = new HashMap<>();
+        for (Long filmId : filmIds) {
+            Film film = films.get(filmId);
+            if (film != null && !film.getLikes().isEmpty()) {
+                likes.put(filmId, new LongHashSet(film.getLikes()));
+            }
+        }
         return likes;
     }
 
     @Override
-    public void addLike(Long id, Long userId) {
-        Film film = findFilmById(id)
+    public synchronized void addLike(Long id, Long userId) {
+        Film film = Optional.ofNullable(films.get(id))
                 .orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден"));
 
-        if (findAllLikes(film).contains(userId)) {
-            throw new DuplicatedDataException(String.format("Пользователь %s уже ставил лайк фильму %s",
-                    userId, film.getName()));
+        if (film.getLikes() != null && film.getLikes().contains(userId)) {
+            return;
         }
 
-        findAllLikes(film).add(userId);
+        journal(ADD_LIKE, out -> writeLike(out, id, userId), () -> applyLike(film, userId));
     }
 
     @Override
-    public void removeLike(Long filmId, Long userId) {
-        Film film = findFilmById(filmId)
+    public synchronized void removeLike(Long filmId, Long userId) {
+        Film film = Optional.ofNullable(films.get(filmId))
                 .orElseThrow(() -> new NotFoundException("Фильм с ID " + filmId + " не найден"));
-        if (!findAllLikes(film).contains(userId)) {
+        if (film.getLikes() == null || !film.getLikes().contains(userId)) {
             throw new NotFoundException(String.format("Пользователь %s не ставил лайк фильму %s",
                     userId, film.getName()));
         }
 
-        findAllLikes(film).remove(userId);
+        journal(REMOVE_LIKE, out -> writeLike(out, filmId, userId), () -> film.getLikes().remove(userId));
     }
 
     @Override
-    public Collection<Film> getPopularFilms(int count) {
+    public synchronized Collection<Film> getPopularFilms(int count) {
         if (count <= 0) {
             throw new IllegalArgumentException("count должен быть > 0");
         }
 
-        return findAllFilms()
+        return films.values()
                 .stream()
                 .sorted(Comparator.comparing((Film film) -> film.getLikes().size(), Comparator.reverseOrder()))
                 .limit(count)
+                .map(FilmMapper::copyFilm)
                 .collect(Collectors.toList());
     }
+
+    public synchronized boolean restore(Collection<Film> restored) {
+        return restoreBaseline(() -> {
+            films.clear();
+            genreStorage.clearFilmGenres();
+            for (Film film : restored) {
+                putFilm(film);
+            }
+        });
+    }
+
+    @Override
+    protected void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(films.size());
+        for (Film film : films.values()) {
+            WalCodec.writeFilm(out, film);
+        }
+    }
+
+    @Override
+    protected void readSnapshot(DataInput in) throws IOException {
+        films.clear();
+        genreStorage.clearFilmGenres();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            putFilm(WalCodec.readFilm(in));
+        }
+    }
+
+    @Override
+    protected void replay(byte operation, DataInput in) throws IOException {
+        // Фильм может прийти из снимка каталога, который загружается уже после первого прохода по журналу
+        switch (operation) {
+            case CREATE_FILM, UPDATE_FILM -> putFilm(WalCodec.readFilm(in));
+            case ADD_GENRES -> {
+                Film film = films.get(in.readLong());
+                Set<Genre> genres = WalCodec.readGenres(in);
+                if (film != null) {
+                    applyGenres(film, genres);
+                }
+            }
+            case ADD_LIKE -> {
+                Film film = films.get(in.readLong());
+                long userId = in.readLong();
+                if (film != null) {
+                    applyLike(film, userId);
+                }
+            }
+            case REMOVE_LIKE -> {
+                Film film = films.get(in.readLong());
+                long userId = in.readLong();
+                if (film != null) {
+                    film.getLikes().remove(userId);
+                }
+            }
+            default -> throw new IOException("Неизвестная операция журнала фильмов: " + operation);
+        }
+    }
+
+    private void putFilm(Film film) {
+        films.put(film.getId(), film);
+        genreStorage.setFilmGenres(film.getId(), film.getGenres());
+    }
+
+    private void applyGenres(Film film, Set<Genre> genres) {
+        if (film.getGenres() == null) {
+            film.setGenres(new LinkedHashSet<>());
+        }
+        film.getGenres().addAll(genres);
+        genreStorage.setFilmGenres(film.getId(), film.getGenres());
+    }
+
+    private void applyLike(Film film, Long userId) {
+        if (film.getLikes() == null) {
+            film.setLikes(new LongHashSet());
+        }
+        film.getLikes().add(userId);
+    }
+
+    private static void writeLike(DataOutput out, Long filmId, Long userId) throws IOException {
+        out.writeLong(filmId);
+        out.writeLong(userId);
+    }
 }
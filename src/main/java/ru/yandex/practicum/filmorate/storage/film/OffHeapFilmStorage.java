@@ -0,0 +1,430 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.genre.InMemoryGenreStorage;
+import ru.yandex.practicum.filmorate.storage.mpa.MpaStorage;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+import ru.yandex.practicum.filmorate.util.SortedLongArraySet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "off-heap")
+public class OffHeapFilmStorage implements FilmStorage {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int MAX_GENRE_ID = Long.SIZE - 1;
+
+    private final InMemoryGenreStorage genreStorage;
+    private final MpaStorage mpaStorage;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringArena strings = new StringArena(INITIAL_CAPACITY * 64);
+    private final List<LongHashSet> likes = new ArrayList<>();
+
+    private int capacity = INITIAL_CAPACITY;
+    private int count;
+    private ByteBuffer releaseDays = allocate(Integer.BYTES);
+    private ByteBuffer durations = allocate(Integer.BYTES);
+    private ByteBuffer ratingIds = allocate(Long.BYTES);
+    private ByteBuffer likeCounts = allocate(Integer.BYTES);
+    private ByteBuffer genreMasks = allocate(Long.BYTES);
+    private ByteBuffer nameRefs = allocate(Long.BYTES);
+    private ByteBuffer descriptionRefs = allocate(Long.BYTES);
+
+    public OffHeapFilmStorage(InMemoryGenreStorage genreStorage, MpaStorage mpaStorage) {
+        this.genreStorage = genreStorage;
+        this.mpaStorage = mpaStorage;
+    }
+
+    @Override
+    public Collection<Film> findAllFilms() {
+        lock.readLock().lock();
+        try {
+            List<Film> films = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                films.add(materialize(row));
+            }
+            return films;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film createFilm(Film film) {
+        lock.writeLock().lock();
+        try {
+            if (count == capacity) {
+                grow();
+            }
+            int row = count++;
+            likes.add(new LongHashSet());
+            film.setId(idOf(row));
+            write(row, film);
+            genreMasks.putLong(row * Long.BYTES, genreMask(film.getGenres()));
+            genreStorage.setFilmGenres(film.getId(), genres(row));
+            return film;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Film updateFilm(Film newFilm) {
+        lock.writeLock().lock();
+        try {
+            write(rowOf(newFilm.getId()), newFilm);
+            return newFilm;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Film> findFilmById(Long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowIndex(id);
+            return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Film> findFilmsByIds(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<Film> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                int row = rowIndex(id);
+                if (row >= 0) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addFilmGenres(Long filmId, Collection<Long> genreIds) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(filmId);
+            long mask = genreMasks.getLong(row * Long.BYTES);
+            for (Long genreId : genreIds) {
+                if (genreId <= 0 || genreId > MAX_GENRE_ID) {
+                    throw new ValidationException("ID жанра должен быть от 1 до " + MAX_GENRE_ID);
+                }
+                mask |= 1L << genreId;
+            }
+            genreMasks.putLong(row * Long.BYTES, mask);
+            genreStorage.setFilmGenres(filmId, genres(row));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Long> findAllLikes(Film film) {
+        lock.readLock().lock();
+        try {
+            return SortedLongArraySet.of(likes.get(rowOf(film.getId())).toLongArray());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, Set<Long>> findLikesByFilmIds(Collection<Long> filmIds) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Set<Long>> result = new HashMap<>();
+            for (Long filmId : filmIds) {
+                int row = rowIndex(filmId);
+                if (row >= 0 && !likes.get(row).isEmpty()) {
+                    result.put(filmId, new LongHashSet(likes.get(row)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addLike(Long id, Long userId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (likes.get(row).add(userId.longValue())) {
+                likeCounts.putInt(row * Integer.BYTES, likes.get(row).size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeLike(Long filmId, Long userId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(filmId);
+            if (!likes.get(row).remove(userId.longValue())) {
+                throw new NotFoundException(String.format("Пользователь %s не ставил лайк фильму %s",
+                        userId, filmId));
+            }
+            likeCounts.putInt(row * Integer.BYTES, likes.get(row).size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Film> getPopularFilms(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count должен быть > 0");
+        }
+
+        lock.readLock().lock();
+        try {
+            int limit = Math.min(count, this.count);
+            int[] heap = new int[limit];
+            int heapSize = 0;
+
+            for (int row = 0; row < this.count; row++) {
+                if (heapSize < limit) {
+                    heap[heapSize] = row;
+                    siftUp(heap, heapSize++);
+                } else if (limit > 0 && ranksHigher(row, heap[0])) {
+                    heap[0] = row;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            Film[] films = new Film[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                films[i] = materialize(heap[0]);
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return Arrays.asList(films);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Collection<Film> findFilmsReleasedBetween(LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            List<Film> films = new ArrayList<>();
+            for (int row = 0; row < count; row++) {
+                int day = releaseDays.getInt(row * Integer.BYTES);
+                if (day != NULL_INT && day >= fromDay && day <= toDay) {
+                    films.add(materialize(row));
+                }
+            }
+            return films;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(int row, Film film) {
+        releaseDays.putInt(row * Integer.BYTES,
+                film.getReleaseDate() == null ? NULL_INT : (int) film.getReleaseDate().toEpochDay());
+        durations.putInt(row * Integer.BYTES, film.getDuration() == null ? NULL_INT : film.getDuration());
+        Mpa mpa = film.getMpa();
+        ratingIds.putLong(row * Long.BYTES, mpa == null || mpa.getId() == null ? 0 : mpa.getId());
+        nameRefs.putLong(row * Long.BYTES, strings.append(film.getName()));
+        descriptionRefs.putLong(row * Long.BYTES, strings.append(film.getDescription()));
+    }
+
+    private Film materialize(int row) {
+        Film film = new Film();
+        film.setId(idOf(row));
+        film.setName(strings.read(nameRefs.getLong(row * Long.BYTES)));
+        film.setDescription(strings.read(descriptionRefs.getLong(row * Long.BYTES)));
+
+        int releaseDay = releaseDays.getInt(row * Integer.BYTES);
+        film.setReleaseDate(releaseDay == NULL_INT ? null : LocalDate.ofEpochDay(releaseDay));
+        int duration = durations.getInt(row * Integer.BYTES);
+        film.setDuration(duration == NULL_INT ? null : duration);
+
+        long ratingId = ratingIds.getLong(row * Long.BYTES);
+        if (ratingId > 0) {
+            film.setMpa(mpaStorage.findMpaById(ratingId).orElseGet(() -> {
+                Mpa mpa = new Mpa();
+                mpa.setId(ratingId);
+                return mpa;
+            }));
+        }
+
+        film.getGenres().addAll(genres(row));
+        film.setLikes(new LongHashSet(likes.get(row)));
+        return film;
+    }
+
+    private Set<Genre> genres(int row) {
+        Set<Genre> genres = new LinkedHashSet<>();
+        long mask = genreMasks.getLong(row * Long.BYTES);
+        while (mask != 0) {
+            long genreId = Long.numberOfTrailingZeros(mask);
+            genres.add(genreStorage.findGenreById(genreId).orElseGet(() -> new Genre(genreId, null)));
+            mask &= mask - 1;
+        }
+        return genres;
+    }
+
+    private boolean ranksHigher(int row, int other) {
+        int rowLikes = likeCounts.getInt(row * Integer.BYTES);
+        int otherLikes = likeCounts.getInt(other * Integer.BYTES);
+        return rowLikes > otherLikes || (rowLikes == otherLikes && row < other);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksHigher(heap[parent], heap[index])) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int lowest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksHigher(heap[lowest], heap[left])) {
+                lowest = left;
+            }
+            if (right < size && ranksHigher(heap[lowest], heap[right])) {
+                lowest = right;
+            }
+            if (lowest == index) {
+                return;
+            }
+            swap(heap, index, lowest);
+            index = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private int rowIndex(Long id) {
+        if (id == null || id < 1 || id > count) {
+            return -1;
+        }
+        return (int) (id - 1);
+    }
+
+    private int rowOf(Long id) {
+        int row = rowIndex(id);
+        if (row < 0) {
+            throw new NotFoundException("Фильм с ID " + id + " не найден");
+        }
+        return row;
+    }
+
+    private static long idOf(int row) {
+        return row + 1L;
+    }
+
+    private long genreMask(Collection<Genre> genres) {
+        long mask = 0;
+        if (genres != null) {
+            for (Genre genre : genres) {
+                if (genre.getId() != null && genre.getId() > 0 && genre.getId() <= MAX_GENRE_ID) {
+                    mask |= 1L << genre.getId();
+                }
+            }
+        }
+        return mask;
+    }
+
+    private void grow() {
+        int newCapacity = capacity << 1;
+        releaseDays = copy(releaseDays, newCapacity * Integer.BYTES);
+        durations = copy(durations, newCapacity * Integer.BYTES);
+        ratingIds = copy(ratingIds, newCapacity * Long.BYTES);
+        likeCounts = copy(likeCounts, newCapacity * Integer.BYTES);
+        genreMasks = copy(genreMasks, newCapacity * Long.BYTES);
+        nameRefs = copy(nameRefs, newCapacity * Long.BYTES);
+        descriptionRefs = copy(descriptionRefs, newCapacity * Long.BYTES);
+        capacity = newCapacity;
+        log.debug("Колонки фильмов расширены до {} строк", newCapacity);
+    }
+
+    private ByteBuffer allocate(int width) {
+        return ByteBuffer.allocateDirect(capacity * width);
+    }
+
+    private static ByteBuffer copy(ByteBuffer source, int size) {
+        ByteBuffer target = ByteBuffer.allocateDirect(size);
+        target.put(0, source, 0, source.capacity());
+        return target;
+    }
+
+    // Ссылка на строку — (offset << 32 | length), length = -1 для null; перезаписанные значения не освобождаются
+    private static final class StringArena {
+        private static final long NULL_REF = 0xFFFFFFFFL;
+
+        private ByteBuffer buffer;
+        private int size;
+
+        private StringArena(int capacity) {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        private long append(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > buffer.capacity()) {
+                buffer = copy(buffer, Math.max(buffer.capacity() << 1, size + bytes.length));
+            }
+            int offset = size;
+            buffer.put(offset, bytes);
+            size += bytes.length;
+            return ((long) offset << 32) | bytes.length;
+        }
+
+        private String read(long ref) {
+            int length = (int) ref;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get((int) (ref >>> 32), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
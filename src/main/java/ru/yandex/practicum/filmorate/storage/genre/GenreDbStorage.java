@@ -1,24 +1,40 @@
 package ru.yandex.practicum.filmorate.storage.genre;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.storage.BaseDbStorage;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+import ru.yandex.practicum.filmorate.storage.batch.IdArrayQuery;
 import ru.yandex.practicum.filmorate.storage.mappers.GenreRowMapper;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Repository
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "db", matchIfMissing = true)
 public class GenreDbStorage extends BaseDbStorage<Genre> implements GenreStorage {
-    private static final String FIND_ALL_QUERY = "SELECT * FROM genres";
-    private static final String FIND_BY_ID_QUERY = "SELECT * FROM genres WHERE genre_id = ?";
-    private static final String FIND_GENRES_BY_FILM_ID = "SELECT g.* FROM genres g " +
+    private static final String FIND_ALL_QUERY = "/* GenreDbStorage.FIND_ALL_QUERY */ SELECT * FROM genres";
+    private static final String FIND_BY_ID_QUERY = "/* GenreDbStorage.FIND_BY_ID_QUERY */ " +
+            "SELECT * FROM genres WHERE genre_id = ?";
+    private static final String FIND_GENRES_BY_FILM_ID = "/* GenreDbStorage.FIND_GENRES_BY_FILM_ID */ " +
+            "SELECT g.* FROM genres g " +
             "JOIN film_genres fg ON g.genre_id = fg.genre_id WHERE fg.film_id = ?";
+    private static final String FIND_EXISTING_GENRE_IDS = "/* GenreDbStorage.FIND_EXISTING_GENRE_IDS */ " +
+            "SELECT genre_id FROM genres WHERE genre_id = ANY(?)";
+    private static final String FIND_GENRES_BY_FILM_IDS = "/* GenreDbStorage.FIND_GENRES_BY_FILM_IDS */ " +
+            "SELECT fg.film_id, g.genre_id, g.name FROM film_genres fg " +
+            "JOIN genres g ON fg.genre_id = g.genre_id WHERE fg.film_id = ANY(?) ORDER BY g.genre_id";
 
-    public GenreDbStorage(JdbcTemplate jdbc, RowMapper<Genre> mapper) {
+    private final IdArrayQuery idQuery;
+
+    public GenreDbStorage(JdbcTemplate jdbc, RowMapper<Genre> mapper, BatchProperties batchProperties,
+                          ChunkExecutor chunkExecutor) {
         super(jdbc, mapper, Genre.class);
+        this.idQuery = new IdArrayQuery(jdbc, batchProperties, chunkExecutor);
     }
 
     @Override
@@ -48,13 +64,7 @@ public class GenreDbStorage extends BaseDbStorage<Genre> implements GenreStorage
             return Collections.emptySet();
         }
 
-        String sql = "SELECT genre_id FROM genres WHERE genre_id IN (";
-        sql += genreIds.stream().map(id -> "?").collect(Collectors.joining(", "));
-        sql += ")";
-
-        return jdbc.queryForList(sql, genreIds.toArray(), Long.class)
-                .stream()
-                .collect(Collectors.toSet());
+        return new HashSet<>(idQuery.query(FIND_EXISTING_GENRE_IDS, (rs, rowNum) -> rs.getLong(1), genreIds));
     }
 
     @Override
@@ -63,24 +73,17 @@ public class GenreDbStorage extends BaseDbStorage<Genre> implements GenreStorage
             return Collections.emptyMap();
         }
 
-        String placeholders = String.join(", ", Collections.nCopies(filmIds.size(), "?"));
-
-        String sql = String.format("""
-                SELECT fg.film_id, g.genre_id, g.name
-                FROM film_genres fg
-                JOIN genres g ON fg.genre_id = g.genre_id
-                WHERE fg.film_id IN (%s)
-                """, placeholders);
-
-        return jdbc.query(sql, (rs, rowNum) -> {
-                    Long filmId = rs.getLong("film_id");
-                    Genre genre = new Genre(rs.getLong("genre_id"), rs.getString("name"));
-                    return Map.entry(filmId, genre);
-                }, filmIds.toArray())
-                .stream()
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        Collectors.mapping(Map.Entry::getValue, Collectors.toSet())
-                ));
+        // Жанров единицы, поэтому один экземпляр жанра делят все фильмы из ответа
+        Map<Long, Genre> genres = new HashMap<>();
+        Map<Long, Set<Genre>> filmGenres = new HashMap<>();
+        idQuery.query(FIND_GENRES_BY_FILM_IDS, (RowCallbackHandler) rs -> {
+            Genre genre = genres.get(rs.getLong(2));
+            if (genre == null) {
+                genre = new Genre(rs.getLong(2), rs.getString(3));
+                genres.put(genre.getId(), genre);
+            }
+            filmGenres.computeIfAbsent(rs.getLong(1), id -> new LinkedHashSet<>()).add(genre);
+        }, filmIds);
+        return filmGenres;
     }
 }
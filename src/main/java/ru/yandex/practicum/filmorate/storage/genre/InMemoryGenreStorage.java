@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.storage.genre;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Genre;
 
@@ -8,20 +9,30 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
+@ConditionalOnExpression("'${filmorate.storage.type:db}' != 'db'")
 @Slf4j
 public class InMemoryGenreStorage implements GenreStorage {
+    private static final List<String> DEFAULT_GENRES =
+            List.of("Комедия", "Драма", "Мультфильм", "Триллер", "Документальный", "Боевик");
+
     private final Map<Long, Genre> genres = new HashMap<>();
     private final Map<Long, Set<Long>> filmGenres = new HashMap<>();
 
-    public Collection<Genre> findAllGenres() {
-        return genres.values();
+    public InMemoryGenreStorage() {
+        for (int i = 0; i < DEFAULT_GENRES.size(); i++) {
+            genres.put(i + 1L, new Genre(i + 1L, DEFAULT_GENRES.get(i)));
+        }
+    }
+
+    public synchronized Collection<Genre> findAllGenres() {
+        return new ArrayList<>(genres.values());
     }
 
-    public Optional<Genre> findGenreById(Long id) {
+    public synchronized Optional<Genre> findGenreById(Long id) {
         return Optional.ofNullable(genres.get(id));
     }
 
-    public Optional<Set<Genre>> findGenresByFilmId(Long filmId) {
+    public synchronized Optional<Set<Genre>> findGenresByFilmId(Long filmId) {
         if (filmId == null) {
             return Optional.empty();
         }
@@ -41,7 +52,7 @@ public class InMemoryGenreStorage implements GenreStorage {
                 : Optional.of(genres);
     }
 
-    public Set<Long> findExistingGenreIds(Set<Long> genreIds) {
+    public synchronized Set<Long> findExistingGenreIds(Set<Long> genreIds) {
         if (genreIds.isEmpty()) {
             return Collections.emptySet();
         }
@@ -52,7 +63,7 @@ public class InMemoryGenreStorage implements GenreStorage {
     }
 
     @Override
-    public Map<Long, Set<Genre>> findGenresByFilmIds(Collection<Long> filmIds) {
+    public synchronized Map<Long, Set<Genre>> findGenresByFilmIds(Collection<Long> filmIds) {
         return filmIds.stream()
                 .filter(filmGenres::containsKey)
                 .collect(Collectors.toMap(
@@ -63,4 +74,27 @@ public class InMemoryGenreStorage implements GenreStorage {
                                 .collect(Collectors.toSet())
                 ));
     }
+
+    public synchronized void setFilmGenres(Long filmId, Collection<Genre> genres) {
+        if (genres == null || genres.isEmpty()) {
+            filmGenres.remove(filmId);
+            return;
+        }
+        Set<Long> genreIds = new LinkedHashSet<>();
+        for (Genre genre : genres) {
+            genreIds.add(genre.getId());
+        }
+        filmGenres.put(filmId, genreIds);
+    }
+
+    public synchronized void clearFilmGenres() {
+        filmGenres.clear();
+    }
+
+    public synchronized void restore(Collection<Genre> restoredGenres) {
+        genres.clear();
+        for (Genre genre : restoredGenres) {
+            genres.put(genre.getId(), genre);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.storage.mappers;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.dto.mpa.MpaDto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FilmDtoExtractor implements ResultSetExtractor<List<FilmDto>> {
+    @Override
+    public List<FilmDto> extractData(ResultSet rs) throws SQLException {
+        List<FilmDto> films = new ArrayList<>();
+        if (!rs.next()) {
+            return films;
+        }
+
+        int id = rs.findColumn("film_id");
+        int name = rs.findColumn("name");
+        int description = rs.findColumn("description");
+        int releaseDate = rs.findColumn("releaseDate");
+        int duration = rs.findColumn("duration");
+        int ratingId = rs.findColumn("rating_id");
+        int ratingName = rs.findColumn("rating_name");
+        int likeCount = rs.findColumn("like_count");
+        Map<Long, MpaDto> ratings = new HashMap<>();
+
+        do {
+            FilmDto film = new FilmDto();
+            film.setId(rs.getLong(id));
+            film.setName(rs.getString(name));
+            film.setDescription(rs.getString(description));
+            film.setReleaseDate(rs.getObject(releaseDate, LocalDate.class));
+            long minutes = rs.getLong(duration);
+            film.setDuration(rs.wasNull() ? null : minutes);
+            film.setLikeCount(rs.getLong(likeCount));
+
+            long mpaId = rs.getLong(ratingId);
+            if (!rs.wasNull()) {
+                MpaDto mpa = ratings.get(mpaId);
+                if (mpa == null) {
+                    mpa = new MpaDto();
+                    mpa.setId(mpaId);
+                    mpa.setName(rs.getString(ratingName));
+                    ratings.put(mpaId, mpa);
+                }
+                film.setMpa(mpa);
+            }
+            films.add(film);
+        } while (rs.next());
+
+        return films;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.storage.mappers;
+
+import org.springframework.jdbc.core.RowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmField;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+public class FilmProjectionRowMapper implements RowMapper<Film> {
+    private final Set<FilmField> fields;
+
+    public FilmProjectionRowMapper(Set<FilmField> fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public Film mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        Film film = new Film();
+        film.setId(resultSet.getLong("film_id"));
+        if (fields.contains(FilmField.NAME)) {
+            film.setName(resultSet.getString("name"));
+        }
+        if (fields.contains(FilmField.DESCRIPTION)) {
+            film.setDescription(resultSet.getString("description"));
+        }
+        if (fields.contains(FilmField.RELEASE_DATE)) {
+            Date releaseDate = resultSet.getDate("releaseDate");
+            film.setReleaseDate(releaseDate == null ? null : releaseDate.toLocalDate());
+        }
+        if (fields.contains(FilmField.DURATION)) {
+            film.setDuration(resultSet.getInt("duration"));
+        }
+        if (fields.contains(FilmField.MPA)) {
+            Mpa mpa = new Mpa();
+            mpa.setId(resultSet.getLong("rating_id"));
+            mpa.setName(resultSet.getString("rating_name"));
+            film.setMpa(mpa);
+        }
+        if (fields.contains(FilmField.LIKE_COUNT)) {
+            film.setLikeCount(resultSet.getLong("like_count"));
+        }
+        return film;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.storage.mappers;
+
+import org.springframework.jdbc.core.RowMapper;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+public class UserProjectionRowMapper implements RowMapper<User> {
+    private final Set<UserField> fields;
+
+    public UserProjectionRowMapper(Set<UserField> fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public User mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(resultSet.getLong("user_id"));
+        if (fields.contains(UserField.EMAIL)) {
+            user.setEmail(resultSet.getString("email"));
+        }
+        if (fields.contains(UserField.LOGIN)) {
+            user.setLogin(resultSet.getString("login"));
+        }
+        if (fields.contains(UserField.NAME)) {
+            user.setName(resultSet.getString("name"));
+        }
+        if (fields.contains(UserField.BIRTHDAY)) {
+            Date birthday = resultSet.getDate("birthday");
+            user.setBirthday(birthday == null ? null : birthday.toLocalDate());
+        }
+        if (fields.contains(UserField.FRIEND_COUNT)) {
+            user.setFriendCount(resultSet.getLong("friend_count"));
+        }
+        return user;
+    }
+}
@@ -3,11 +3,10 @@ package ru.yandex.practicum.filmorate.storage.mappers;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashSet;
-import java.util.Set;
 
 @Component
 public class UserWithFriendsRowMapper implements RowMapper<User>  {
@@ -20,8 +19,8 @@ public class UserWithFriendsRowMapper implements RowMapper<User>  {
         user.setName(resultSet.getString("name"));
         user.setBirthday(resultSet.getDate("birthday").toLocalDate());
 
-        Set<Long> friends = new HashSet<>();
-        Long friendId = resultSet.getLong("friend_id");
+        LongHashSet friends = new LongHashSet();
+        long friendId = resultSet.getLong("friend_id");
         if (!resultSet.wasNull()) {
             friends.add(friendId);
         }
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DbMetricsConfiguration {
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, ObjectProvider<MeterRegistry> registry,
+                                     DbMetricsProperties properties) {
+        return new InstrumentedJdbcTemplate(dataSource, registry.getIfAvailable(() -> Metrics.globalRegistry),
+                properties);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.db")
+public class DbMetricsProperties {
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+    private boolean explainSlowQueries = true;
+    private Duration explainInterval = Duration.ofMinutes(1);
+    private int explainQueueSize = 16;
+}
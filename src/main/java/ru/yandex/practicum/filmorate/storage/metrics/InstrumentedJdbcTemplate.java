@@ -0,0 +1,306 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.*;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class InstrumentedJdbcTemplate extends JdbcTemplate implements DisposableBean {
+    private static final int MAX_LOGGED_ELEMENTS = 20;
+
+    private final MeterRegistry registry;
+    private final DbMetricsProperties properties;
+    private final Map<String, QueryMeters> meters = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public InstrumentedJdbcTemplate(DataSource dataSource, MeterRegistry registry, DbMetricsProperties properties) {
+        super(dataSource);
+        this.registry = registry;
+        this.properties = properties;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getExplainQueueSize()), runnable -> {
+                    Thread thread = new Thread(runnable, "db-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse)
+            throws DataAccessException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            T result = super.query(psc, pss, rse);
+            rows = rowsOf(result, rse);
+            return result;
+        } finally {
+            record(sqlOf(psc), argsOf(pss), start, rows);
+        }
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            T result = super.query(sql, rse);
+            rows = rowsOf(result, rse);
+            return result;
+        } finally {
+            record(sql, null, start, rows);
+        }
+    }
+
+    @Override
+    public void query(String sql, PreparedStatementSetter pss, RowCallbackHandler rch) throws DataAccessException {
+        query(sql, pss, new CountingRowCallbackExtractor(rch));
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch) throws DataAccessException {
+        query(sql, new CountingRowCallbackExtractor(rch));
+    }
+
+    @Override
+    protected int update(PreparedStatementCreator psc, PreparedStatementSetter pss) throws DataAccessException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = super.update(psc, pss);
+            return rows;
+        } finally {
+            record(sqlOf(psc), argsOf(pss), start, rows);
+        }
+    }
+
+    @Override
+    public int update(PreparedStatementCreator psc, KeyHolder generatedKeyHolder) throws DataAccessException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = super.update(psc, generatedKeyHolder);
+            return rows;
+        } finally {
+            record(sqlOf(psc), argsOf(psc), start, rows);
+        }
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = super.update(sql);
+            return rows;
+        } finally {
+            record(sql, null, start, rows);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            int[] counts = super.batchUpdate(sql, pss);
+            rows = Arrays.stream(counts).filter(count -> count > 0).sum();
+            return counts;
+        } finally {
+            record(sql, null, start, rows);
+        }
+    }
+
+    @Override
+    protected PreparedStatementSetter newArgPreparedStatementSetter(Object[] args) {
+        return new RecordingArgumentSetter(args);
+    }
+
+    private void record(String sql, Object[] args, long start, long rows) {
+        long elapsed = System.nanoTime() - start;
+        String name = QueryNames.resolve(sql);
+        QueryMeters queryMeters = meters.computeIfAbsent(name, this::createMeters);
+        queryMeters.timer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            queryMeters.rows.record(rows);
+        }
+
+        if (elapsed >= properties.getSlowQueryThreshold().toNanos()) {
+            logSlowQuery(name, sql, args, elapsed);
+        }
+    }
+
+    private QueryMeters createMeters(String name) {
+        return new QueryMeters(
+                Timer.builder("filmorate.db.query")
+                        .description("Время выполнения SQL-запроса")
+                        .tag("query", name)
+                        .register(registry),
+                DistributionSummary.builder("filmorate.db.rows")
+                        .description("Число строк, возвращённых или изменённых запросом")
+                        .baseUnit("rows")
+                        .tag("query", name)
+                        .register(registry));
+    }
+
+    private void logSlowQuery(String name, String sql, Object[] args, long elapsedNanos) {
+        String params = formatArgs(args);
+        log.warn("Медленный запрос {} выполнялся {} мс: {} параметры {}", name, elapsedNanos / 1_000_000,
+                sql, params);
+        if (sql != null && shouldExplain(name)) {
+            try {
+                explainExecutor.execute(() -> {
+                    String plan = explain(sql, args);
+                    if (plan != null) {
+                        log.warn("План медленного запроса {}: {}", name, plan);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("План запроса {} не запрошен: очередь EXPLAIN заполнена", name);
+            }
+        }
+    }
+
+    private boolean shouldExplain(String name) {
+        if (!properties.isExplainSlowQueries()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long interval = properties.getExplainInterval().toNanos();
+        Long previous = lastExplained.get(name);
+        if (previous != null && now - previous < interval) {
+            return false;
+        }
+        return previous == null ? lastExplained.putIfAbsent(name, now) == null
+                : lastExplained.replace(name, previous, now);
+    }
+
+    private String explain(String sql, Object[] args) {
+        DataSource dataSource = getDataSource();
+        if (dataSource == null) {
+            return null;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    Object arg = args[i] instanceof SqlParameterValue value ? value.getValue() : args[i];
+                    statement.setObject(i + 1, arg);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            log.debug("Не удалось получить план запроса: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String sqlOf(Object source) {
+        return source instanceof SqlProvider provider ? provider.getSql() : null;
+    }
+
+    private static Object[] argsOf(Object source) {
+        if (source instanceof RecordingArgumentSetter setter) {
+            return setter.args;
+        }
+        return source instanceof SqlArgsProvider provider ? provider.getSqlArgs() : null;
+    }
+
+    static String formatArgs(Object[] args) {
+        if (args == null) {
+            return "[]";
+        }
+        StringJoiner params = new StringJoiner(", ", "[", "]");
+        for (Object arg : args) {
+            params.add(formatArg(arg instanceof SqlParameterValue value ? value.getValue() : arg));
+        }
+        return params.toString();
+    }
+
+    // Массивы ID для ANY(?) бывают на тысячи элементов, в лог попадает только их начало
+    private static String formatArg(Object arg) {
+        if (arg == null || !arg.getClass().isArray()) {
+            return String.valueOf(arg);
+        }
+        int length = Array.getLength(arg);
+        StringJoiner elements = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < Math.min(length, MAX_LOGGED_ELEMENTS); i++) {
+            elements.add(formatArg(Array.get(arg, i)));
+        }
+        if (length > MAX_LOGGED_ELEMENTS) {
+            elements.add("... ещё " + (length - MAX_LOGGED_ELEMENTS));
+        }
+        return elements.toString();
+    }
+
+    private static long rowsOf(Object result, ResultSetExtractor<?> rse) {
+        if (rse instanceof CountingRowCallbackExtractor && result instanceof Integer rows) {
+            return rows;
+        }
+        return result instanceof Collection<?> collection ? collection.size() : -1;
+    }
+
+    private record QueryMeters(Timer timer, DistributionSummary rows) {
+    }
+
+    private static final class RecordingArgumentSetter extends ArgumentPreparedStatementSetter {
+        private final Object[] args;
+
+        private RecordingArgumentSetter(Object[] args) {
+            super(args);
+            this.args = args;
+        }
+    }
+
+    private static final class CountingRowCallbackExtractor implements ResultSetExtractor<Integer> {
+        private final RowCallbackHandler handler;
+
+        private CountingRowCallbackExtractor(RowCallbackHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Integer extractData(ResultSet rs) throws SQLException {
+            int rows = 0;
+            while (rs.next()) {
+                handler.processRow(rs);
+                rows++;
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryCounter {
+    private static final ThreadLocal<Collection<Counts>> current = new ThreadLocal<>();
+
+    public static void start() {
+        current.set(List.of(new Counts()));
+    }
+
+    public static Counts peek() {
+        Collection<Counts> counts = current.get();
+        return counts == null ? new Counts() : counts.iterator().next();
+    }
+
+    public static Counts stop() {
+        Counts counts = peek();
+        current.remove();
+        return counts;
+    }
+
+    // Счётчики запросов текущего потока, чтобы засчитать им запросы, выполненные в другом потоке
+    public static Collection<Counts> capture() {
+        Collection<Counts> counts = current.get();
+        return counts == null ? List.of() : counts;
+    }
+
+    public static <T> T countFor(Collection<Counts> counts, Supplier<T> action) {
+        Collection<Counts> previous = current.get();
+        if (counts.isEmpty()) {
+            current.remove();
+        } else {
+            current.set(counts);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    static void record(long nanos) {
+        Collection<Counts> counts = current.get();
+        if (counts != null) {
+            for (Counts target : counts) {
+                target.statements.incrementAndGet();
+                target.nanos.addAndGet(nanos);
+            }
+        }
+    }
+
+    public static final class Counts {
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        public int getStatements() {
+            return statements.get();
+        }
+
+        public long getNanos() {
+            return nanos.get();
+        }
+
+        public double millis() {
+            return getNanos() / 1_000_000.0;
+        }
+    }
+}
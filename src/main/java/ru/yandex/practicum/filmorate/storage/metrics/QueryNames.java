@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryNames {
+    public static final String UNKNOWN = "other";
+
+    private static final String PREFIX = "/* ";
+    private static final String SUFFIX = " */";
+
+    public static String resolve(String sql) {
+        if (sql == null || !sql.startsWith(PREFIX)) {
+            return UNKNOWN;
+        }
+        int end = sql.indexOf(SUFFIX, PREFIX.length());
+        return end < 0 ? UNKNOWN : sql.substring(PREFIX.length(), end);
+    }
+}
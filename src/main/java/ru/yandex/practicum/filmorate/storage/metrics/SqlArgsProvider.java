@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+// Как SqlProvider для текста: отдаёт параметры запроса, которые иначе спрятаны внутри PreparedStatementCreator
+public interface SqlArgsProvider {
+    Object[] getSqlArgs();
+}
@@ -1,24 +1,50 @@
 package ru.yandex.practicum.filmorate.storage.mpa;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Mpa;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 @Component
+@ConditionalOnExpression("'${filmorate.storage.type:db}' != 'db'")
 @Slf4j
 public class InMemoryMpaStorage implements MpaStorage {
     private final Map<Long, Mpa> mpa = new HashMap<>();
 
-    public Collection<Mpa> findAllMpa() {
-        return mpa.values();
+    public InMemoryMpaStorage() {
+        addRating(1L, "G", "У фильма нет возрастных ограничений");
+        addRating(2L, "PG", "Детям рекомендуется смотреть фильм с родителями");
+        addRating(3L, "PG-13", "Детям до 13 лет просмотр не желателен");
+        addRating(4L, "R", "Лицам до 17 лет просматривать фильм можно только в присутствии взрослого");
+        addRating(5L, "NC-17", "Лицам до 18 лет просмотр запрещён");
     }
 
-    public Optional<Mpa> findMpaById(Long id) {
+    public synchronized Collection<Mpa> findAllMpa() {
+        return new ArrayList<>(mpa.values());
+    }
+
+    public synchronized Optional<Mpa> findMpaById(Long id) {
         return Optional.ofNullable(mpa.get(id));
     }
+
+    public synchronized void restore(Collection<Mpa> restored) {
+        mpa.clear();
+        for (Mpa rating : restored) {
+            mpa.put(rating.getId(), rating);
+        }
+    }
+
+    private void addRating(Long id, String name, String description) {
+        Mpa rating = new Mpa();
+        rating.setId(id);
+        rating.setName(name);
+        rating.setDescription(description);
+        mpa.put(id, rating);
+    }
 }
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.storage.mpa;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -10,9 +11,11 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "db", matchIfMissing = true)
 public class MpaDbStorage extends BaseDbStorage<Mpa> implements MpaStorage {
-    private static final String FIND_ALL_QUERY = "SELECT * FROM ratings";
-    private static final String FIND_BY_ID_QUERY = "SELECT * FROM ratings WHERE id = ?";
+    private static final String FIND_ALL_QUERY = "/* MpaDbStorage.FIND_ALL_QUERY */ SELECT * FROM ratings";
+    private static final String FIND_BY_ID_QUERY = "/* MpaDbStorage.FIND_BY_ID_QUERY */ " +
+            "SELECT * FROM ratings WHERE id = ?";
 
     public MpaDbStorage(JdbcTemplate jdbc, RowMapper<Mpa> mapper) {
         super(jdbc, mapper, Mpa.class);
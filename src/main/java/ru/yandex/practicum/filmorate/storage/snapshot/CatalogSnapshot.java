@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import lombok.Data;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.wal.SnapshotFile;
+import ru.yandex.practicum.filmorate.storage.wal.WalCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CatalogSnapshot {
+    private List<Mpa> ratings = new ArrayList<>();
+    private List<Genre> genres = new ArrayList<>();
+    private List<User> users = new ArrayList<>();
+    private List<Film> films = new ArrayList<>();
+
+    public void write(Path file) throws IOException {
+        SnapshotFile.write(file, 0, this::writeTo);
+    }
+
+    public static CatalogSnapshot read(Path file) throws IOException {
+        CatalogSnapshot catalog = new CatalogSnapshot();
+        SnapshotFile.read(file, catalog::readFrom);
+        return catalog;
+    }
+
+    private void writeTo(DataOutput out) throws IOException {
+        out.writeInt(ratings.size());
+        for (Mpa mpa : ratings) {
+            WalCodec.writeMpa(out, mpa);
+        }
+        WalCodec.writeGenres(out, genres);
+        out.writeInt(users.size());
+        for (User user : users) {
+            WalCodec.writeUser(out, user);
+        }
+        out.writeInt(films.size());
+        for (Film film : films) {
+            WalCodec.writeFilm(out, film);
+        }
+    }
+
+    private void readFrom(DataInput in) throws IOException {
+        int ratingCount = in.readInt();
+        ratings = new ArrayList<>(ratingCount);
+        for (int i = 0; i < ratingCount; i++) {
+            ratings.add(WalCodec.readMpa(in));
+        }
+        genres = new ArrayList<>(WalCodec.readGenres(in));
+        int userCount = in.readInt();
+        users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(WalCodec.readUser(in));
+        }
+        int filmCount = in.readInt();
+        films = new ArrayList<>(filmCount);
+        for (int i = 0; i < filmCount; i++) {
+            films.add(WalCodec.readFilm(in));
+        }
+    }
+}
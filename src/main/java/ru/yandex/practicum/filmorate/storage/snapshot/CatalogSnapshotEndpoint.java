@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"filmorate.snapshot.export-path", "management.server.port"})
+@Endpoint(id = "catalogsnapshot", defaultAccess = Access.NONE)
+public class CatalogSnapshotEndpoint {
+    private final CatalogSnapshotExporter exporter;
+    private final Path exportPath;
+
+    public CatalogSnapshotEndpoint(CatalogSnapshotExporter exporter,
+                                   @Value("${filmorate.snapshot.export-path}") Path exportPath) {
+        this.exporter = exporter;
+        this.exportPath = exportPath;
+    }
+
+    @WriteOperation
+    public ExportInfo export() {
+        long start = System.nanoTime();
+        CatalogSnapshot catalog = exporter.exportFromDatabase(exportPath);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Снимок каталога выгружен в {} за {} мс: {} фильмов, {} пользователей",
+                exportPath, millis, catalog.getFilms().size(), catalog.getUsers().size());
+        return new ExportInfo(exportPath.toAbsolutePath().toString(), catalog.getFilms().size(),
+                catalog.getUsers().size(), millis);
+    }
+
+    public record ExportInfo(String path, int films, int users, long millis) {
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.MpaRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.UserRowMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class CatalogSnapshotExporter {
+    private static final String FIND_RATINGS = "/* CatalogSnapshotExporter.FIND_RATINGS */ SELECT * FROM ratings";
+    private static final String FIND_GENRES = "/* CatalogSnapshotExporter.FIND_GENRES */ SELECT * FROM genres";
+    private static final String FIND_USERS = "/* CatalogSnapshotExporter.FIND_USERS */ SELECT * FROM users";
+    private static final String FIND_FRIENDS = "/* CatalogSnapshotExporter.FIND_FRIENDS */ " +
+            "SELECT user_id, friend_id FROM friends";
+    private static final String FIND_FILMS = "/* CatalogSnapshotExporter.FIND_FILMS */ " +
+            "SELECT f.film_id, f.name, f.description, f.releaseDate, f.duration, " +
+            "r.id AS rating_id, r.name AS rating_name FROM films f LEFT JOIN ratings r ON f.rating_id = r.id";
+    private static final String FIND_FILM_GENRES = "/* CatalogSnapshotExporter.FIND_FILM_GENRES */ " +
+            "SELECT fg.film_id, g.genre_id, g.name FROM film_genres fg " +
+            "JOIN genres g ON fg.genre_id = g.genre_id ORDER BY fg.id";
+    private static final String FIND_LIKES = "/* CatalogSnapshotExporter.FIND_LIKES */ " +
+            "SELECT film_id, user_id FROM film_likes";
+
+    private final JdbcTemplate jdbc;
+
+    public CatalogSnapshotExporter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public CatalogSnapshot exportFromDatabase(Path file) {
+        CatalogSnapshot catalog = loadFromDatabase();
+        try {
+            catalog.write(file);
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось записать снимок каталога " + file + ": " + e.getMessage());
+        }
+        return catalog;
+    }
+
+    public CatalogSnapshot loadFromDatabase() {
+        CatalogSnapshot catalog = new CatalogSnapshot();
+        catalog.setRatings(jdbc.query(FIND_RATINGS, new MpaRowMapper()));
+        catalog.setGenres(jdbc.query(FIND_GENRES, new GenreRowMapper()));
+
+        Map<Long, User> users = new LinkedHashMap<>();
+        jdbc.query(FIND_USERS, new UserRowMapper()).forEach(user -> users.put(user.getId(), user));
+        jdbc.query(FIND_FRIENDS, (RowCallbackHandler) rs -> {
+            User user = users.get(rs.getLong("user_id"));
+            if (user != null) {
+                user.getFriends().add(rs.getLong("friend_id"));
+            }
+        });
+
+        Map<Long, Film> films = new LinkedHashMap<>();
+        jdbc.query(FIND_FILMS, new FilmRowMapper()).forEach(film -> films.put(film.getId(), film));
+        jdbc.query(FIND_FILM_GENRES, (RowCallbackHandler) rs -> {
+            Film film = films.get(rs.getLong("film_id"));
+            if (film != null) {
+                film.getGenres().add(new Genre(rs.getLong("genre_id"), rs.getString("name")));
+            }
+        });
+        jdbc.query(FIND_LIKES, (RowCallbackHandler) rs -> {
+            Film film = films.get(rs.getLong("film_id"));
+            if (film != null) {
+                film.getLikes().add(rs.getLong("user_id"));
+            }
+        });
+
+        catalog.setUsers(new ArrayList<>(users.values()));
+        catalog.setFilms(new ArrayList<>(films.values()));
+        return catalog;
+    }
+}
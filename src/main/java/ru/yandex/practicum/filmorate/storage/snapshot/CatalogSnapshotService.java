@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.genre.InMemoryGenreStorage;
+import ru.yandex.practicum.filmorate.storage.mpa.InMemoryMpaStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory")
+public class CatalogSnapshotService {
+    private final InMemoryFilmStorage filmStorage;
+    private final InMemoryUserStorage userStorage;
+    private final InMemoryGenreStorage genreStorage;
+    private final InMemoryMpaStorage mpaStorage;
+    private final String snapshotPath;
+
+    public CatalogSnapshotService(InMemoryFilmStorage filmStorage,
+                                  InMemoryUserStorage userStorage,
+                                  InMemoryGenreStorage genreStorage,
+                                  InMemoryMpaStorage mpaStorage,
+                                  @Value("${filmorate.snapshot.path:}") String snapshotPath) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.genreStorage = genreStorage;
+        this.mpaStorage = mpaStorage;
+        this.snapshotPath = snapshotPath;
+    }
+
+    @PostConstruct
+    public void restoreOnStartup() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+
+        Path file = Path.of(snapshotPath);
+        if (!Files.exists(file)) {
+            log.warn("Снимок каталога {} не найден, in-memory хранилища остаются пустыми", file);
+            return;
+        }
+        restore(file);
+    }
+
+    public void restore(Path file) {
+        long start = System.nanoTime();
+        CatalogSnapshot catalog;
+        try {
+            catalog = CatalogSnapshot.read(file);
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось прочитать снимок каталога " + file + ": " + e.getMessage());
+        }
+
+        restore(catalog);
+        log.info("Каталог восстановлен из снимка {} за {} мс: {} фильмов, {} пользователей",
+                file, (System.nanoTime() - start) / 1_000_000, catalog.getFilms().size(),
+                catalog.getUsers().size());
+    }
+
+    public void restore(CatalogSnapshot catalog) {
+        mpaStorage.restore(catalog.getRatings());
+        genreStorage.restore(catalog.getGenres());
+        if (!userStorage.restore(catalog.getUsers())) {
+            log.info("У хранилища пользователей есть собственный снимок, пользователи из снимка каталога пропущены");
+        }
+        if (!filmStorage.restore(catalog.getFilms())) {
+            log.info("У хранилища фильмов есть собственный снимок, фильмы из снимка каталога пропущены");
+        }
+    }
+}
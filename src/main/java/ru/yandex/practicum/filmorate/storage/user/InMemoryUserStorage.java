@@ -1,25 +1,46 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.mapper.UserMapper;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.wal.JournaledStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalCodec;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
+@ConditionalOnExpression("'${filmorate.storage.type:db}' != 'db'")
 @Slf4j
-public class InMemoryUserStorage implements UserStorage {
+public class InMemoryUserStorage extends JournaledStorage implements UserStorage {
+    private static final byte CREATE_USER = 1;
+    private static final byte UPDATE_USER = 2;
+    private static final byte ADD_FRIEND = 3;
+    private static final byte REMOVE_FRIEND = 4;
+
     private final Map<Long, User> users = new HashMap<>();
 
-    public Collection<User> findAllUsers() {
-        return users.values();
+    public InMemoryUserStorage(WalProperties walProperties) {
+        super(walProperties, "users");
+    }
+
+    public synchronized Collection<User> findAllUsers() {
+        return users.values().stream().map(UserMapper::copyUser).collect(Collectors.toList());
     }
 
-    public User createUser(User user) {
+    public synchronized User createUser(User user) {
+        validateUnique(user);
         user.setId(getNextId());
-        users.put(user.getId(), user);
+        User stored = UserMapper.copyUser(user);
+        journal(CREATE_USER, out -> WalCodec.writeUser(out, stored), () -> users.put(stored.getId(), stored));
         return user;
     }
 
@@ -32,18 +53,46 @@ public class InMemoryUserStorage implements UserStorage {
         return ++currentMaxId;
     }
 
-    public User updateUser(User newUser) {
+    public synchronized User updateUser(User newUser) {
         log.info("Начало обновления пользователя. ID: {}", newUser.getId());
+        validateUnique(newUser);
 
-        users.put(newUser.getId(), newUser);
+        User stored = UserMapper.copyUser(newUser);
+        journal(UPDATE_USER, out -> WalCodec.writeUser(out, stored), () -> users.put(stored.getId(), stored));
         return newUser;
     }
 
-    public Optional<User> findUserById(Long id) {
-        return Optional.ofNullable(users.get(id));
+    private void validateUnique(User user) {
+        for (User other : users.values()) {
+            if (Objects.equals(other.getId(), user.getId())) {
+                continue;
+            }
+            if (other.getEmail().equals(user.getEmail())) {
+                throw new DuplicatedDataException("Этот имейл уже используется.");
+            }
+            if (other.getLogin().equals(user.getLogin())) {
+                throw new DuplicatedDataException("Этот логин уже используется.");
+            }
+        }
+    }
+
+    public synchronized Optional<User> findUserById(Long id) {
+        return Optional.ofNullable(users.get(id)).map(UserMapper::copyUser);
     }
 
-    public boolean tryAddFriendship(Long userId, Long friendId) {
+    @Override
+    public synchronized Collection<User> findUsersByIds(Collection<Long> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(UserMapper.copyUser(user));
+            }
+        }
+        return result;
+    }
+
+    public synchronized boolean tryAddFriendship(Long userId, Long friendId) {
         User user = users.get(userId);
         User friend = users.get(friendId);
 
@@ -55,28 +104,30 @@ public class InMemoryUserStorage implements UserStorage {
             return false;
         }
 
-        user.getFriends().add(friendId);
+        journal(ADD_FRIEND, out -> writeFriendship(out, userId, friendId), () -> user.getFriends().add(friendId));
         log.debug("Пользователь {} добавил в друзья {}", userId, friendId);
 
         return true;
     }
 
-    public boolean removeFriendship(Long userId, Long friendId) {
+    public synchronized boolean removeFriendship(Long userId, Long friendId) {
         User user = users.get(userId);
         if (user == null || !user.getFriends().contains(friendId)) {
             return false;
         }
-        user.getFriends().remove(friendId);
+        journal(REMOVE_FRIEND, out -> writeFriendship(out, userId, friendId),
+                () -> user.getFriends().remove(friendId));
         return true;
     }
 
-    public Optional<User> findUserByEmail(String email) {
+    public synchronized Optional<User> findUserByEmail(String email) {
         return users.values().stream()
                 .filter(user -> user.getEmail().equals(email))
-                .findFirst();
+                .findFirst()
+                .map(UserMapper::copyUser);
     }
 
-    public Collection<User> findCommonFriends(Long userId, Long otherUserId) {
+    public synchronized Collection<User> findCommonFriends(Long userId, Long otherUserId) {
         log.debug("Поиск общих друзей для пользователей ID={} и ID={}", userId, otherUserId);
 
         User user = users.get(userId);
@@ -87,16 +138,18 @@ public class InMemoryUserStorage implements UserStorage {
             return Collections.emptyList();
         }
 
-        Set<Long> userFriends = new HashSet<>(user.getFriends());
-        Set<Long> otherUserFriends = new HashSet<>(otherUser.getFriends());
-
-        Set<Long> commonFriendIds = userFriends.stream()
-                .filter(otherUserFriends::contains)
-                .collect(Collectors.toSet());
+        Set<Long> smaller = user.getFriends();
+        Set<Long> larger = otherUser.getFriends();
+        if (smaller.size() > larger.size()) {
+            smaller = otherUser.getFriends();
+            larger = user.getFriends();
+        }
 
-        Collection<User> commonFriends = commonFriendIds.stream()
-                .map(friendId -> users.get(friendId))
+        Collection<User> commonFriends = smaller.stream()
+                .filter(larger::contains)
+                .map(users::get)
                 .filter(Objects::nonNull)
+                .map(UserMapper::copyUser)
                 .collect(Collectors.toList());
 
         log.trace("Найдено {} общих друзей для ID={} и ID={}",
@@ -106,7 +159,7 @@ public class InMemoryUserStorage implements UserStorage {
     }
 
     @Override
-    public Collection<User> findFriendsByUserId(Long userId) {
+    public synchronized Collection<User> findFriendsByUserId(Long userId) {
         log.debug("Поиск друзей пользователя с ID={}", userId);
 
         User user = users.get(userId);
@@ -124,9 +177,68 @@ public class InMemoryUserStorage implements UserStorage {
         Collection<User> friends = friendIds.stream()
                 .map(users::get)
                 .filter(Objects::nonNull)
+                .map(UserMapper::copyUser)
                 .collect(Collectors.toList());
 
         log.trace("Для пользователя с ID={} найдено {} друзей", userId, friends.size());
         return friends;
     }
+
+    public synchronized boolean restore(Collection<User> restored) {
+        return restoreBaseline(() -> {
+            users.clear();
+            for (User user : restored) {
+                users.put(user.getId(), user);
+            }
+        });
+    }
+
+    @Override
+    protected void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(users.size());
+        for (User user : users.values()) {
+            WalCodec.writeUser(out, user);
+        }
+    }
+
+    @Override
+    protected void readSnapshot(DataInput in) throws IOException {
+        users.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            User user = WalCodec.readUser(in);
+            users.put(user.getId(), user);
+        }
+    }
+
+    @Override
+    protected void replay(byte operation, DataInput in) throws IOException {
+        // Пользователь может прийти из снимка каталога, который загружается уже после первого прохода по журналу
+        switch (operation) {
+            case CREATE_USER, UPDATE_USER -> {
+                User user = WalCodec.readUser(in);
+                users.put(user.getId(), user);
+            }
+            case ADD_FRIEND -> {
+                User user = users.get(in.readLong());
+                long friendId = in.readLong();
+                if (user != null) {
+                    user.getFriends().add(friendId);
+                }
+            }
+            case REMOVE_FRIEND -> {
+                User user = users.get(in.readLong());
+                long friendId = in.readLong();
+                if (user != null) {
+                    user.getFriends().remove(friendId);
+                }
+            }
+            default -> throw new IOException("Неизвестная операция журнала пользователей: " + operation);
+        }
+    }
+
+    private static void writeFriendship(DataOutput out, Long userId, Long friendId) throws IOException {
+        out.writeLong(userId);
+        out.writeLong(friendId);
+    }
 }
@@ -1,46 +1,113 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
-import jakarta.transaction.Transactional;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
-import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.mapper.UserMapper;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
 import ru.yandex.practicum.filmorate.storage.BaseDbStorage;
+import ru.yandex.practicum.filmorate.storage.batch.BatchLoader;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+import ru.yandex.practicum.filmorate.storage.batch.IdArrayQuery;
+import ru.yandex.practicum.filmorate.storage.mappers.UserProjectionRowMapper;
 import ru.yandex.practicum.filmorate.storage.mappers.UserRowMapper;
-import ru.yandex.practicum.filmorate.storage.mappers.UserWithFriendsRowMapper;
 
+import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Repository
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "db", matchIfMissing = true)
 public class UserDbStorage extends BaseDbStorage<User> implements UserStorage {
-    private static final String FIND_ALL_QUERY = "SELECT * FROM users";
-    private static final String FIND_BY_ID_QUERY = "SELECT u.user_id, u.email, u.login, u.name, u.birthday, " +
-            "f.friend_id FROM users u LEFT JOIN friends f ON u.user_id = f.user_id WHERE u.user_id = ?";
-    private static final String INSERT_QUERY = "INSERT INTO users(email, login, name, birthday)" +
+    private static final String FRIEND_COUNT_COLUMN = "(SELECT COUNT(*) FROM friends fc " +
+            "WHERE fc.user_id = u.user_id) AS friend_count";
+    private static final String FIND_ALL_QUERY = "/* UserDbStorage.FIND_ALL_QUERY */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM users u";
+    private static final String FIND_BY_ID_QUERY = "/* UserDbStorage.FIND_BY_ID_QUERY */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM users u " +
+            "WHERE u.user_id = ?";
+    private static final String FIND_BY_IDS_QUERY = "/* UserDbStorage.FIND_BY_IDS_QUERY */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM users u " +
+            "WHERE u.user_id = ANY(?)";
+    private static final String INSERT_QUERY = "/* UserDbStorage.INSERT_QUERY */ " +
+            "INSERT INTO users(email, login, name, birthday)" +
             "VALUES (?, ?, ?, ?)";
-    private static final String UPDATE_QUERY = "UPDATE users SET email = ?, login = ?, name = ?, birthday = ? " +
+    private static final String UPDATE_QUERY = "/* UserDbStorage.UPDATE_QUERY */ " +
+            "UPDATE users SET email = ?, login = ?, name = ?, birthday = ? " +
             "WHERE user_id = ?";
-    private static final String CHECK_FRIENDS = "SELECT COUNT(*) FROM friends WHERE user_id = ? AND friend_id = ?";
-    private static final String ADD_FRIEND = "INSERT INTO friends (user_id, friend_id) VALUES (?, ?)";
-    private static final String DELETE_FRIEND = "DELETE FROM friends WHERE user_id = ? AND friend_id = ?";
-    private static final String FIND_EMAIL = "SELECT * FROM users WHERE email = ?";
-    private static final String GET_COMMON_FRIENDS = "SELECT u.* FROM users u WHERE u.user_id IN ( SELECT f1.friend_id" +
-            " FROM friends f1 JOIN friends f2 ON f1.friend_id = f2.friend_id WHERE f1.user_id = ? AND f2.user_id = ? )";
-    private static final String FIND_FRIENDS_BY_USER_ID = "SELECT u2.* FROM friends f JOIN users u2 ON " +
-            "f.friend_id = u2.user_id WHERE f.user_id = ? ";
+    private static final String ADD_FRIEND = "/* UserDbStorage.ADD_FRIEND */ " +
+            "MERGE INTO friends f USING (VALUES (CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT))) AS s (user_id, friend_id) ON f.user_id = s.user_id AND f.friend_id = s.friend_id " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, friend_id) VALUES (s.user_id, s.friend_id)";
+    private static final String DELETE_FRIEND = "/* UserDbStorage.DELETE_FRIEND */ " +
+            "DELETE FROM friends WHERE user_id = ? AND friend_id = ?";
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int H2_DUPLICATE_KEY = 23505;
+    // Имя ограничения в кавычках: "PUBLIC.USERS_EMAIL_UQ_INDEX_4 ON ..." у H2, "users_email_uq" у PostgreSQL
+    private static final Pattern VIOLATED_CONSTRAINT =
+            Pattern.compile("\"(?:\\w+\\.)?(users_email_uq|users_login_uq)(?:_index_\\d+)?[\\s\"]");
+    private static final String FIND_EMAIL = "/* UserDbStorage.FIND_EMAIL */ SELECT * FROM users WHERE email = ?";
+    private static final String GET_COMMON_FRIENDS = "/* UserDbStorage.GET_COMMON_FRIENDS */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM users u " +
+            "WHERE u.user_id IN ( SELECT f1.friend_id FROM friends f1 JOIN friends f2 ON f1.friend_id = f2.friend_id " +
+            "WHERE f1.user_id = ? AND f2.user_id = ? )";
+    private static final String FIND_FRIENDS_BY_USER_ID = "/* UserDbStorage.FIND_FRIENDS_BY_USER_ID */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM friends f " +
+            "JOIN users u ON f.friend_id = u.user_id WHERE f.user_id = ? ORDER BY f.friend_id";
+    private static final String FIND_FRIENDS_PAGE = "/* UserDbStorage.FIND_FRIENDS_PAGE */ " +
+            "SELECT u.*, " + FRIEND_COUNT_COLUMN + " FROM friends f " +
+            "JOIN users u ON f.friend_id = u.user_id WHERE f.user_id = ? AND f.friend_id > ? " +
+            "ORDER BY f.friend_id LIMIT ?";
+    private static final String FIND_ALL_PROJECTED = "/* UserDbStorage.FIND_ALL_PROJECTED */ SELECT %s FROM users u";
+    private static final String FIND_BY_IDS_PROJECTED = "/* UserDbStorage.FIND_BY_IDS_PROJECTED */ " +
+            "SELECT %s FROM users u WHERE u.user_id = ANY(?)";
+    private static final String FIND_ALL_FRIEND_IDS = "/* UserDbStorage.FIND_ALL_FRIEND_IDS */ " +
+            "SELECT user_id, friend_id FROM friends";
+    private static final String FIND_FRIEND_IDS_BY_USER_IDS = "/* UserDbStorage.FIND_FRIEND_IDS_BY_USER_IDS */ " +
+            "SELECT user_id, friend_id FROM friends " +
+            "WHERE user_id = ANY(?)";
+
+    private static final Set<UserField> FULL_ROW = Collections.unmodifiableSet(EnumSet.of(UserField.EMAIL,
+            UserField.LOGIN, UserField.NAME, UserField.BIRTHDAY, UserField.FRIEND_COUNT));
 
     RowMapper<User> userRowMapper;
-    RowMapper<User> userWithFriendsRowMapper;
+    private final BatchLoader<Long, User> userLoader;
+    private final IdArrayQuery idQuery;
 
-    public UserDbStorage(JdbcTemplate jdbc, UserRowMapper userRowMapper,
-                         UserWithFriendsRowMapper userWithFriendsRowMapper) {
-        super(jdbc, userRowMapper, User.class);
+    public UserDbStorage(JdbcTemplate jdbc, UserRowMapper userRowMapper, BatchProperties batchProperties,
+                         ChunkExecutor chunkExecutor) {
+        super(jdbc, withFriendCount(userRowMapper), User.class);
         this.userRowMapper = userRowMapper;
-        this.userWithFriendsRowMapper = userWithFriendsRowMapper;
+        this.idQuery = new IdArrayQuery(jdbc, batchProperties, chunkExecutor);
+        this.userLoader = new BatchLoader<>(this::findUsersByIdsAsMap, id -> findOne(FIND_BY_ID_QUERY, id),
+                batchProperties, UserMapper::copyUser);
+    }
+
+    private static RowMapper<User> withFriendCount(RowMapper<User> mapper) {
+        return (rs, rowNum) -> {
+            User user = mapper.mapRow(rs, rowNum);
+            if (user != null) {
+                user.setFriendCount(rs.getLong("friend_count"));
+            }
+            return user;
+        };
     }
 
     @Override
@@ -50,62 +117,150 @@ public class UserDbStorage extends BaseDbStorage<User> implements UserStorage {
 
     @Override
     public Optional<User> findUserById(Long userId) {
-        List<User> users = jdbc.query(
-                FIND_BY_ID_QUERY,
-                new Object[]{userId},
-                userWithFriendsRowMapper
-        );
+        return userLoader.load(userId);
+    }
+
+    @Override
+    public Collection<User> findUsersByIds(Collection<Long> ids) {
+        return idQuery.query(FIND_BY_IDS_QUERY, mapper, ids);
+    }
 
-        return users.stream().findFirst();
+    private Map<Long, User> findUsersByIdsAsMap(Collection<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        for (User user : findUsersByIds(ids)) {
+            users.put(user.getId(), user);
+        }
+        return users;
     }
 
     @Override
-    public User createUser(User user) {
-        long id = insert(
-                INSERT_QUERY,
-                user.getEmail(),
-                user.getLogin(),
-                user.getName(),
-                user.getBirthday()
-        );
-        user.setId(id);
-        return user;
+    public Collection<User> findAllUsers(Set<UserField> fields) {
+        List<User> users = fields.containsAll(FULL_ROW)
+                ? findAllUsers()
+                : jdbc.query(String.format(FIND_ALL_PROJECTED, columns(fields)), new UserProjectionRowMapper(fields));
+        if (fields.contains(UserField.FRIENDS)) {
+            jdbc.query(FIND_ALL_FRIEND_IDS, friendsCollector(users));
+        }
+        return users;
     }
 
     @Override
-    public User updateUser(User user) {
-        update(
-                UPDATE_QUERY,
-                user.getEmail(),
-                user.getLogin(),
-                user.getName(),
-                user.getBirthday(),
-                user.getId()
-        );
-        return user;
+    public Collection<User> findUsersByIds(Collection<Long> ids, Set<UserField> fields) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<User> users = fields.containsAll(FULL_ROW)
+                ? idQuery.query(FIND_BY_IDS_QUERY, mapper, ids)
+                : idQuery.query(String.format(FIND_BY_IDS_PROJECTED, columns(fields)),
+                        new UserProjectionRowMapper(fields), ids);
+        if (fields.contains(UserField.FRIENDS)) {
+            idQuery.query(FIND_FRIEND_IDS_BY_USER_IDS, friendsCollector(users), ids);
+        }
+        return users;
     }
 
-    @Transactional
-    public boolean tryAddFriendship(Long userId, Long friendId) {
-        Integer count = jdbc.queryForObject(
-                CHECK_FRIENDS,
-                Integer.class,
-                userId, friendId);
+    private static RowCallbackHandler friendsCollector(List<User> users) {
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : users) {
+            usersById.put(user.getId(), user);
+        }
+        return rs -> {
+            User user = usersById.get(rs.getLong("user_id"));
+            if (user != null) {
+                user.getFriends().add(rs.getLong("friend_id"));
+            }
+        };
+    }
 
-        if (count != null && count > 0) {
-            return false;
+    private static String columns(Set<UserField> fields) {
+        StringJoiner columns = new StringJoiner(", ");
+        columns.add("user_id");
+        if (fields.contains(UserField.EMAIL)) {
+            columns.add("email");
         }
+        if (fields.contains(UserField.LOGIN)) {
+            columns.add("login");
+        }
+        if (fields.contains(UserField.NAME)) {
+            columns.add("name");
+        }
+        if (fields.contains(UserField.BIRTHDAY)) {
+            columns.add("birthday");
+        }
+        if (fields.contains(UserField.FRIEND_COUNT)) {
+            columns.add(FRIEND_COUNT_COLUMN);
+        }
+        return columns.toString();
+    }
 
-        int rowsAffected = jdbc.update(
-                ADD_FRIEND,
-                userId,
-                friendId);
+    @Override
+    public User createUser(User user) {
+        try {
+            long id = insert(
+                    INSERT_QUERY,
+                    user.getEmail(),
+                    user.getLogin(),
+                    user.getName(),
+                    user.getBirthday()
+            );
+            user.setId(id);
+            return user;
+        } catch (DuplicateKeyException e) {
+            throw duplicated(e);
+        }
+    }
+
+    @Override
+    public User updateUser(User user) {
+        try {
+            update(
+                    UPDATE_QUERY,
+                    user.getEmail(),
+                    user.getLogin(),
+                    user.getName(),
+                    user.getBirthday(),
+                    user.getId()
+            );
+            return user;
+        } catch (DuplicateKeyException e) {
+            throw duplicated(e);
+        }
+    }
+
+    private static RuntimeException duplicated(DuplicateKeyException e) {
+        SQLException sqlException = findSqlException(e);
+        if (sqlException == null || !(UNIQUE_VIOLATION.equals(sqlException.getSQLState())
+                || sqlException.getErrorCode() == H2_DUPLICATE_KEY)) {
+            return e;
+        }
+        Matcher matcher = VIOLATED_CONSTRAINT.matcher(
+                String.valueOf(sqlException.getMessage()).toLowerCase(Locale.ROOT));
+        if (!matcher.find()) {
+            return e;
+        }
+        return switch (matcher.group(1)) {
+            case "users_email_uq" -> new DuplicatedDataException("Этот имейл уже используется.");
+            default -> new DuplicatedDataException("Этот логин уже используется.");
+        };
+    }
 
-        if (rowsAffected != 1) {
-            throw new InternalServerException("Не удалось добавить дружбу");
+    private static SQLException findSqlException(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException;
+            }
         }
+        return null;
+    }
 
-        return true;
+    public boolean tryAddFriendship(Long userId, Long friendId) {
+        try {
+            return jdbc.update(ADD_FRIEND, userId, friendId) > 0;
+        } catch (DuplicateKeyException e) {
+            // Параллельный такой же запрос успел вставить строку первым
+            return false;
+        }
     }
 
     public boolean removeFriendship(Long userId, Long friendId) {
@@ -124,24 +279,14 @@ public class UserDbStorage extends BaseDbStorage<User> implements UserStorage {
 
     @Override
     public Optional<User> findUserByEmail(String email) {
-        try {
-            return Optional.ofNullable(
-                    jdbc.queryForObject(
-                            FIND_EMAIL,
-                            new Object[]{email},
-                            userRowMapper
-                    )
-            );
-        } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
-        }
+        return DataAccessUtils.optionalResult(jdbc.query(FIND_EMAIL, userRowMapper, email));
     }
 
     @Override
     public Collection<User> findCommonFriends(Long userId, Long friendId) {
         return jdbc.query(
                 GET_COMMON_FRIENDS,
-                userRowMapper,
+                mapper,
                 userId,
                 friendId);
     }
@@ -150,8 +295,13 @@ public class UserDbStorage extends BaseDbStorage<User> implements UserStorage {
     public Collection<User> findFriendsByUserId(Long userId) {
         return jdbc.query(
                 FIND_FRIENDS_BY_USER_ID,
-                userRowMapper,
+                mapper,
                 userId
         );
     }
+
+    @Override
+    public List<User> findFriendsByUserId(Long userId, long after, int limit) {
+        return findMany(FIND_FRIENDS_PAGE, userId, after, limit);
+    }
 }
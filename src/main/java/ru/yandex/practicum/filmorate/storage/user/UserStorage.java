@@ -1,9 +1,13 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserStorage {
     Collection<User> findAllUsers();
@@ -14,6 +18,8 @@ public interface UserStorage {
 
     Optional<User> findUserById(Long id);
 
+    Collection<User> findUsersByIds(Collection<Long> ids);
+
     boolean tryAddFriendship(Long userId, Long friendId);
 
     boolean removeFriendship(Long userId, Long friendId);
@@ -23,4 +29,21 @@ public interface UserStorage {
     Collection<User> findCommonFriends(Long userId, Long otherUserId);
 
    Collection<User> findFriendsByUserId(Long userId);
+
+    default List<User> findFriendsByUserId(Long userId, long after, int limit) {
+        return findFriendsByUserId(userId).stream()
+                .filter(user -> user.getId() > after)
+                .sorted(Comparator.comparing(User::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    // Варианты с набором полей: колонки вне fields можно не читать, друзей — только если запрошено поле friends
+    default Collection<User> findAllUsers(Set<UserField> fields) {
+        return findAllUsers();
+    }
+
+    default Collection<User> findUsersByIds(Collection<Long> ids, Set<UserField> fields) {
+        return findUsersByIds(ids);
+    }
 }
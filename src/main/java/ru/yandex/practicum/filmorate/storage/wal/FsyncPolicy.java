@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+public enum FsyncPolicy {
+    ALWAYS,
+    GROUP,
+    INTERVAL
+}
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+public abstract class JournaledStorage {
+    private final WalProperties properties;
+    private final String name;
+    private WriteAheadLog wal;
+    private long recordsSinceSnapshot;
+    private boolean hasSnapshot;
+
+    protected JournaledStorage(WalProperties properties, String name) {
+        this.properties = properties;
+        this.name = name;
+    }
+
+    @PostConstruct
+    public synchronized void recover() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            hasSnapshot = Files.exists(snapshotPath());
+            long snapshotLsn = SnapshotFile.read(snapshotPath(), this::readSnapshot);
+            wal = new WriteAheadLog(properties.getDirectory().resolve(name + ".wal"), properties.getFsync(),
+                    properties.getGroupSize(), properties.getInterval());
+            long lastLsn = replayJournal(snapshotLsn);
+            log.info("Хранилище {} восстановлено: снимок LSN={}, применено записей журнала: {}, последний LSN={}",
+                    name, snapshotLsn, recordsSinceSnapshot, lastLsn);
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось восстановить хранилище " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Внешний снимок (например, каталога) служит основой, только пока у хранилища нет собственного снимка.
+    // Журнал при этом не сбрасывается, а заново применяется поверх загруженных данных.
+    public synchronized boolean restoreBaseline(Runnable baseline) {
+        if (hasSnapshot) {
+            return false;
+        }
+
+        baseline.run();
+        if (wal == null) {
+            return true;
+        }
+
+        try {
+            long lastLsn = replayJournal(0);
+            log.info("Хранилище {} загружено из внешнего снимка, применено записей журнала: {}, последний LSN={}",
+                    name, recordsSinceSnapshot, lastLsn);
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось применить журнал хранилища " + name + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private long replayJournal(long afterLsn) throws IOException {
+        recordsSinceSnapshot = 0;
+        return wal.replay(afterLsn, (lsn, in) -> {
+            replay(in.readByte(), in);
+            recordsSinceSnapshot++;
+        });
+    }
+
+    protected synchronized void journal(byte operation, SnapshotFile.Writer payload, Runnable apply) {
+        if (wal == null) {
+            apply.run();
+            return;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(operation);
+            payload.write(out);
+            wal.append(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось записать изменение в журнал " + name);
+        }
+
+        apply.run();
+
+        if (++recordsSinceSnapshot >= properties.getSnapshotEvery()) {
+            snapshot();
+        }
+    }
+
+    public synchronized void snapshot() {
+        if (wal == null) {
+            return;
+        }
+
+        try {
+            wal.flush();
+            SnapshotFile.write(snapshotPath(), wal.getLastLsn(), this::writeSnapshot);
+            wal.reset();
+            recordsSinceSnapshot = 0;
+            hasSnapshot = true;
+            log.debug("Снимок хранилища {} записан, журнал очищен", name);
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось записать снимок хранилища " + name);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (wal != null) {
+            wal.close();
+            wal = null;
+        }
+    }
+
+    private Path snapshotPath() {
+        return properties.getDirectory().resolve(name + ".snapshot");
+    }
+
+    protected abstract void writeSnapshot(DataOutput out) throws IOException;
+
+    protected abstract void readSnapshot(DataInput in) throws IOException;
+
+    protected abstract void replay(byte operation, DataInput in) throws IOException;
+}
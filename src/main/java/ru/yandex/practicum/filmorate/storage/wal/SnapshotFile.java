@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SnapshotFile {
+    private static final int MAGIC = 0x464D5350;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static void write(Path file, long lsn, Writer writer) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_SIZE));
+            writer.write(out);
+            out.flush();
+
+            long length = channel.position() - HEADER_SIZE;
+            if (length > Integer.MAX_VALUE - HEADER_SIZE) {
+                throw new IOException("Снимок " + file + " превышает допустимый размер");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putLong(lsn);
+            header.putInt((int) length);
+            header.putInt((int) crc.getValue());
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static long read(Path file, Reader reader) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        MappedByteBuffer content;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (content.remaining() < HEADER_SIZE || content.getInt() != MAGIC) {
+            throw new IOException("Файл " + file + " не является снимком хранилища");
+        }
+        long lsn = content.getLong();
+        int length = content.getInt();
+        int checksum = content.getInt();
+        if (length != content.remaining()) {
+            throw new IOException("Снимок " + file + " обрезан");
+        }
+
+        ByteBuffer payload = content.slice(HEADER_SIZE, length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Контрольная сумма снимка " + file + " не совпадает");
+        }
+
+        reader.read(new MappedDataInput(payload));
+        return lsn;
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader {
+        void read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,159 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class WalCodec {
+    public static void writeFilm(DataOutput out, Film film) throws IOException {
+        out.writeLong(film.getId());
+        writeString(out, film.getName());
+        writeString(out, film.getDescription());
+        writeDate(out, film.getReleaseDate());
+        out.writeBoolean(film.getDuration() != null);
+        if (film.getDuration() != null) {
+            out.writeInt(film.getDuration());
+        }
+        writeMpa(out, film.getMpa());
+        writeGenres(out, film.getGenres() == null ? Set.of() : film.getGenres());
+        writeIds(out, film.getLikes() == null ? Set.of() : film.getLikes());
+    }
+
+    public static Film readFilm(DataInput in) throws IOException {
+        Film film = new Film();
+        film.setId(in.readLong());
+        film.setName(readString(in));
+        film.setDescription(readString(in));
+        film.setReleaseDate(readDate(in));
+        if (in.readBoolean()) {
+            film.setDuration(in.readInt());
+        }
+        film.setMpa(readMpa(in));
+        film.setGenres(readGenres(in));
+        readIds(in, film.getLikes());
+        return film;
+    }
+
+    public static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeLong(user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getLogin());
+        writeString(out, user.getName());
+        writeDate(out, user.getBirthday());
+        writeIds(out, user.getFriends() == null ? Set.of() : user.getFriends());
+    }
+
+    public static User readUser(DataInput in) throws IOException {
+        User user = new User();
+        user.setId(in.readLong());
+        user.setEmail(readString(in));
+        user.setLogin(readString(in));
+        user.setName(readString(in));
+        user.setBirthday(readDate(in));
+        readIds(in, user.getFriends());
+        return user;
+    }
+
+    public static void writeGenres(DataOutput out, Collection<Genre> genres) throws IOException {
+        out.writeInt(genres.size());
+        for (Genre genre : genres) {
+            out.writeLong(genre.getId());
+            writeString(out, genre.getName());
+        }
+    }
+
+    public static LinkedHashSet<Genre> readGenres(DataInput in) throws IOException {
+        int size = in.readInt();
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            genres.add(new Genre(in.readLong(), readString(in)));
+        }
+        return genres;
+    }
+
+    public static void writeMpa(DataOutput out, Mpa mpa) throws IOException {
+        out.writeBoolean(mpa != null);
+        if (mpa != null) {
+            out.writeBoolean(mpa.getId() != null);
+            if (mpa.getId() != null) {
+                out.writeLong(mpa.getId());
+            }
+            writeString(out, mpa.getName());
+            writeString(out, mpa.getDescription());
+        }
+    }
+
+    public static Mpa readMpa(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Mpa mpa = new Mpa();
+        if (in.readBoolean()) {
+            mpa.setId(in.readLong());
+        }
+        mpa.setName(readString(in));
+        mpa.setDescription(readString(in));
+        return mpa;
+    }
+
+    private static void writeIds(DataOutput out, Collection<Long> ids) throws IOException {
+        out.writeInt(ids.size());
+        if (ids instanceof LongHashSet longIds) {
+            PrimitiveIterator.OfLong iterator = longIds.iterator();
+            while (iterator.hasNext()) {
+                out.writeLong(iterator.nextLong());
+            }
+            return;
+        }
+        for (Long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    private static void readIds(DataInput in, Collection<Long> target) throws IOException {
+        int size = in.readInt();
+        if (target instanceof LongHashSet longIds) {
+            for (int i = 0; i < size; i++) {
+                longIds.add(in.readLong());
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.add(in.readLong());
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? Long.MIN_VALUE : date.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
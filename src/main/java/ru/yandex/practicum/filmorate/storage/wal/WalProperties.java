@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.wal")
+public class WalProperties {
+    private boolean enabled = false;
+    private Path directory = Path.of("./db/wal");
+    private FsyncPolicy fsync = FsyncPolicy.GROUP;
+    private int groupSize = 32;
+    private Duration interval = Duration.ofSeconds(1);
+    private int snapshotEvery = 10_000;
+}
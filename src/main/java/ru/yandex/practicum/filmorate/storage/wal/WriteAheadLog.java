@@ -0,0 +1,176 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+@Slf4j
+public class WriteAheadLog implements Closeable {
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final int groupSize;
+    private final ScheduledExecutorService flusher;
+    private long lastLsn;
+    private int unsynced;
+
+    public WriteAheadLog(Path file, FsyncPolicy fsyncPolicy, int groupSize, Duration interval) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupSize = Math.max(1, groupSize);
+
+        if (fsyncPolicy != FsyncPolicy.ALWAYS) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher-" + file.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = interval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public synchronized long replay(long afterLsn, RecordHandler handler) throws IOException {
+        long size = channel.size();
+        long validEnd = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        channel.position(0);
+
+        while (validEnd + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            long lsn = header.getLong();
+
+            if (length < 0 || validEnd + HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload);
+
+            crc.reset();
+            crc.update(header.array(), Integer.BYTES * 2, Long.BYTES);
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            validEnd += HEADER_SIZE + length;
+            lastLsn = lsn;
+            if (lsn > afterLsn) {
+                handler.apply(lsn, new DataInputStream(new ByteArrayInputStream(payload.array())));
+            }
+        }
+
+        if (validEnd < size) {
+            log.warn("Журнал {} повреждён после позиции {}, хвост длиной {} байт отброшен",
+                    file, validEnd, size - validEnd);
+            channel.truncate(validEnd);
+            channel.force(false);
+        }
+
+        channel.position(validEnd);
+        lastLsn = Math.max(lastLsn, afterLsn);
+        return lastLsn;
+    }
+
+    public synchronized long append(byte[] payload) throws IOException {
+        long lsn = lastLsn + 1;
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt(0);
+        frame.putLong(lsn);
+        frame.put(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), Integer.BYTES * 2, Long.BYTES + payload.length);
+        frame.putInt(Integer.BYTES, (int) crc.getValue());
+        frame.flip();
+
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        lastLsn = lsn;
+        unsynced++;
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS
+                || (fsyncPolicy == FsyncPolicy.GROUP && unsynced >= groupSize)) {
+            flush();
+        }
+        return lsn;
+    }
+
+    public synchronized void flush() throws IOException {
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    public synchronized void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        unsynced = 0;
+    }
+
+    public synchronized long getLastLsn() {
+        return lastLsn;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+        channel.close();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("Не удалось сбросить журнал {} на диск", file, e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Неожиданный конец журнала " + file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void apply(long lsn, DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum Phase {
+    CONTROLLER("controller"),
+    SERVICE("service"),
+    STORAGE("storage"),
+    MAPPING("mapping"),
+    SERIALIZATION("serialization");
+
+    private final String metricName;
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class PhaseTimingAspect {
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.CONTROLLER);
+    }
+
+    @Around("within(ru.yandex.practicum.filmorate.service..*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.SERVICE);
+    }
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.storage..*Storage.*(..)) " +
+            "|| execution(public * ru.yandex.practicum.filmorate.storage.film.FilmLikeIndex.*(..))")
+    public Object timeStorage(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.STORAGE);
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, Phase phase) throws Throwable {
+        RequestTimings.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.exit();
+        }
+    }
+}
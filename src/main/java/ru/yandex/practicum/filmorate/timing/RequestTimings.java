@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import java.util.Arrays;
+
+public final class RequestTimings {
+    private static final int MAX_DEPTH = 32;
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimings> current = ThreadLocal.withInitial(RequestTimings::new);
+
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] calls = new int[PHASES.length];
+    private final int[] stack = new int[MAX_DEPTH];
+    private int depth;
+    private long mark;
+    private long startedAt;
+    private long totalNanos;
+    private boolean active;
+
+    private RequestTimings() {
+    }
+
+    public static void start() {
+        RequestTimings timings = current.get();
+        Arrays.fill(timings.nanos, 0);
+        Arrays.fill(timings.calls, 0);
+        timings.depth = 0;
+        timings.totalNanos = 0;
+        timings.startedAt = System.nanoTime();
+        timings.active = true;
+    }
+
+    public static RequestTimings finish() {
+        RequestTimings timings = current.get();
+        if (timings.active) {
+            timings.totalNanos = System.nanoTime() - timings.startedAt;
+            timings.active = false;
+        }
+        return timings;
+    }
+
+    public static RequestTimings peek() {
+        RequestTimings timings = current.get();
+        if (timings.active) {
+            timings.totalNanos = System.nanoTime() - timings.startedAt;
+        }
+        return timings;
+    }
+
+    public static void enter(Phase phase) {
+        RequestTimings timings = current.get();
+        if (timings.active) {
+            timings.push(phase.ordinal());
+        }
+    }
+
+    public static void exit() {
+        RequestTimings timings = current.get();
+        if (timings.active) {
+            timings.pop();
+        }
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getCalls(Phase phase) {
+        return calls[phase.ordinal()];
+    }
+
+    // При переполнении стека время глубоких уровней достаётся последнему сохранённому
+    private void push(int phase) {
+        if (depth < MAX_DEPTH) {
+            long now = System.nanoTime();
+            if (depth > 0) {
+                nanos[stack[depth - 1]] += now - mark;
+            }
+            stack[depth] = phase;
+            mark = now;
+        }
+        depth++;
+        calls[phase]++;
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            return;
+        }
+        depth--;
+        if (depth < MAX_DEPTH) {
+            long now = System.nanoTime();
+            nanos[stack[depth]] += now - mark;
+            mark = now;
+        }
+    }
+}
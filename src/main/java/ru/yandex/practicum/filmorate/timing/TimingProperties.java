@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.timing")
+public class TimingProperties {
+    private boolean enabled = true;
+    private double logSampleRate = 0.01;
+    private Duration slowRequestThreshold = Duration.ofSeconds(1);
+}
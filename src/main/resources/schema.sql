@@ -21,10 +21,12 @@ CREATE TABLE IF NOT EXISTS films (
 
 CREATE TABLE IF NOT EXISTS users (
   user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  email VARCHAR NOT NULL UNIQUE,
-  login VARCHAR NOT NULL UNIQUE,
+  email VARCHAR NOT NULL,
+  login VARCHAR NOT NULL,
   name VARCHAR,
-  birthday DATE NOT NULL
+  birthday DATE NOT NULL,
+  CONSTRAINT users_email_uq UNIQUE (email),
+  CONSTRAINT users_login_uq UNIQUE (login)
 );
 
 CREATE TABLE IF NOT EXISTS film_genres (
@@ -40,7 +42,8 @@ CREATE TABLE IF NOT EXISTS film_likes (
   film_id BIGINT NOT NULL,
   user_id BIGINT NOT NULL,
   FOREIGN KEY (film_id) REFERENCES films (film_id) ON DELETE CASCADE,
-  FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+  FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE,
+  CONSTRAINT film_likes_film_user_uq UNIQUE (film_id, user_id)
 );
 
 CREATE TABLE IF NOT EXISTS friends (
@@ -48,5 +51,18 @@ CREATE TABLE IF NOT EXISTS friends (
   user_id BIGINT NOT NULL,
   friend_id BIGINT NOT NULL,
   FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE,
-  FOREIGN KEY (friend_id) REFERENCES users (user_id) ON DELETE CASCADE
+  FOREIGN KEY (friend_id) REFERENCES users (user_id) ON DELETE CASCADE,
+  CONSTRAINT friends_user_friend_uq UNIQUE (user_id, friend_id)
 );
+
+
+ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS users_email_uq UNIQUE (email);
+ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS users_login_uq UNIQUE (login);
+
+DELETE FROM film_likes l
+WHERE EXISTS (SELECT 1 FROM film_likes d WHERE d.film_id = l.film_id AND d.user_id = l.user_id AND d.like_id < l.like_id);
+DELETE FROM friends f
+WHERE EXISTS (SELECT 1 FROM friends d WHERE d.user_id = f.user_id AND d.friend_id = f.friend_id AND d.id < f.id);
+
+ALTER TABLE film_likes ADD CONSTRAINT IF NOT EXISTS film_likes_film_user_uq UNIQUE (film_id, user_id);
+ALTER TABLE friends ADD CONSTRAINT IF NOT EXISTS friends_user_friend_uq UNIQUE (user_id, friend_id);
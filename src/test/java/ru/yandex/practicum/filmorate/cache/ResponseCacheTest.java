@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseCacheTest {
+    private static final String JSON = "application/json";
+
+    @Test
+    void testStoresPlainAndGzipBodiesOffHeap() throws IOException {
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties());
+        byte[] body = "[{\"id\":1,\"name\":\"Комедия\"},{\"id\":2,\"name\":\"Драма\"}]".repeat(20)
+                .getBytes(StandardCharsets.UTF_8);
+
+        cache.put("/genres", 0, JSON, body);
+        ResponseCache.Entry entry = cache.get("/genres", 0);
+
+        assertThat(entry.body().isDirect()).isTrue();
+        assertThat(bytes(entry.body())).isEqualTo(body);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes(entry.gzip())))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void testVersionMismatchIsMiss() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties());
+        CacheVersions versions = new CacheVersions();
+        long version = versions.version(CacheDomain.FILMS, CacheDomain.GENRES);
+        cache.put("/films/1", version, JSON, new byte[]{'{', '}'});
+
+        versions.invalidate(CacheDomain.GENRES);
+
+        assertThat(cache.get("/films/1", versions.version(CacheDomain.FILMS, CacheDomain.GENRES))).isNull();
+        assertThat(cache.getUsedBytes()).isZero();
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxSize(DataSize.ofBytes(25));
+        ResponseCache cache = new ResponseCache(properties);
+
+        cache.put("/mpa/1", 0, JSON, new byte[10]);
+        cache.put("/mpa/2", 0, JSON, new byte[10]);
+        cache.get("/mpa/1", 0);
+        cache.put("/mpa/3", 0, JSON, new byte[10]);
+
+        assertThat(cache.get("/mpa/1", 0)).isNotNull();
+        assertThat(cache.get("/mpa/2", 0)).isNull();
+        assertThat(cache.get("/mpa/3", 0)).isNotNull();
+    }
+
+    @Test
+    void testAcceptEncodingQualityValues() {
+        assertThat(ResponseCacheFilter.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ResponseCacheFilter.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ResponseCacheFilter.acceptsGzip("*")).isTrue();
+        assertThat(ResponseCacheFilter.acceptsGzip("gzip;q=0.0")).isFalse();
+        assertThat(ResponseCacheFilter.acceptsGzip("gzip; q=0, *")).isFalse();
+        assertThat(ResponseCacheFilter.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ResponseCacheFilter.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseCacheFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+    private static final int THREADS = 8;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new RequestCoalescer(registry).create("test");
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "film-1";
+                })));
+            }
+            waitUntilFollowers(THREADS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("film-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("filmorate.coalescing.ratio").tag("name", "test").gauge().value())
+                .isEqualTo((THREADS - 1) / (double) THREADS);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void testFollowersGetTheirOwnCopy() throws Exception {
+        SingleFlight<Long, List<String>> lists = new RequestCoalescer(registry).create("copies", ArrayList::new);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> leader = executor.submit(() -> lists.execute(1L, () -> {
+                await(release);
+                return new ArrayList<>(List.of("film-1"));
+            }));
+            while (lists.inFlight() == 0) {
+                Thread.sleep(1);
+            }
+            Future<List<String>> follower = executor.submit(() -> lists.execute(1L, List::of));
+            while (lists.followers() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(follower.get(5, TimeUnit.SECONDS))
+                    .isEqualTo(leader.get(5, TimeUnit.SECONDS))
+                    .isNotSameAs(leader.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() {
+        assertThatThrownBy(() -> singleFlight.execute(1L, () -> {
+            throw new NotFoundException("Фильм с ID 1 не найден");
+        })).isInstanceOf(NotFoundException.class);
+
+        assertThat(singleFlight.execute(1L, () -> "film-1")).isEqualTo("film-1");
+        assertThat(registry.get("filmorate.coalescing.calls").tag("role", "leader").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    private void waitUntilFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("filmorate.coalescing.calls").tag("role", "follower").functionCounter().count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.cache.ResponseCache;
+import ru.yandex.practicum.filmorate.cache.ResponseCacheFilter;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.storage.film.FilmLikeIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.yandex.practicum.filmorate.controller.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Transactional
+public class FilmControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FilmLikeIndex likeIndex;
+    @Autowired
+    private ResponseCache responseCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void resetCaches() {
+        likeIndex.invalidate();
+        responseCache.clear();
+    }
+
+    @Test
+    public void testFindAllFilms() throws Exception {
+        mockMvc.perform(get("/films"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER, containsString("storage;dur=")))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER,
+                        not(containsString("serialization"))));
+        assertQueryCount(mockMvc, get("/films")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testFindFilmsByIds() throws Exception {
+        mockMvc.perform(get("/films").param("ids", "4,999,1,4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].id").value(1))
+                .andExpect(jsonPath("$[1].genres", hasSize(2)));
+        assertQueryCount(mockMvc, get("/films").param("ids", "3,2,1")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testFindFilmsWithFields() throws Exception {
+        mockMvc.perform(get("/films").param("fields", "name,mpa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].mpa.name").isString())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].genres").doesNotExist());
+        assertQueryCount(mockMvc, get("/films").param("fields", "name,mpa")).isEqualTo(1);
+        assertQueryCount(mockMvc, get("/films/popular").param("fields", "name")).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindFilmWithUnknownField() throws Exception {
+        mockMvc.perform(get("/films/1").param("fields", "name,budget"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testFindFilmById() throws Exception {
+        mockMvc.perform(get("/films/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("1+1"))
+                .andExpect(jsonPath("$.genres", hasSize(2)));
+        assertQueryCount(mockMvc, get("/films/1")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testFilmDtoSerializedOutsideFieldSelection() throws Exception {
+        FilmDto film = new FilmDto();
+        film.setId(1L);
+        film.setName("1+1");
+
+        assertThat(objectMapper.writeValueAsString(film)).contains("\"name\":\"1+1\"");
+    }
+
+    @Test
+    public void testFindFilmByIdServedFromCache() throws Exception {
+        mockMvc.perform(get("/films/1"))
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Content-Type", "application/json;charset=UTF-8"));
+        mockMvc.perform(get("/films/1").header("Accept-Encoding", "gzip;q=0.0, identity"))
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "HIT"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+        mockMvc.perform(get("/films/1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "HIT"))
+                .andExpect(header().string("Content-Type", "application/json;charset=UTF-8"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string(ServerTimingFilter.QUERY_COUNT_HEADER, "0"));
+
+        mockMvc.perform(put("/films/1/like/2"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/films/1"))
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"));
+    }
+
+    @Test
+    public void testFindFilmLikeCount() throws Exception {
+        mockMvc.perform(get("/films/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likeCount").value(3))
+                .andExpect(jsonPath("$.likes").doesNotExist());
+        mockMvc.perform(get("/films/2").param("fields", "likes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likes", hasSize(3)))
+                .andExpect(jsonPath("$.likeCount").doesNotExist());
+        assertQueryCount(mockMvc, get("/films/popular").param("fields", "likeCount")).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetFilmLikes() throws Exception {
+        mockMvc.perform(get("/films/2/likes").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userIds", hasSize(2)))
+                .andExpect(jsonPath("$.userIds[0]").value(1))
+                .andExpect(jsonPath("$.next").value(2));
+        mockMvc.perform(get("/films/2/likes").param("after", "2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userIds", hasSize(1)))
+                .andExpect(jsonPath("$.userIds[0]").value(3))
+                .andExpect(jsonPath("$.next").doesNotExist());
+        mockMvc.perform(get("/films/2/likes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films/999/likes"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testFindUnknownFilm() throws Exception {
+        mockMvc.perform(get("/films/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTimingFilter.QUERY_COUNT_HEADER, "1"));
+    }
+
+    @Test
+    public void testCreateFilm() throws Exception {
+        String film = """
+                {"name": "Амели", "description": "Фильм о застенчивой официантке", "releaseDate": "2001-04-25",
+                 "duration": 122, "mpa": {"id": 4}, "genres": [{"id": 1}, {"id": 2}]}
+                """;
+        mockMvc.perform(post("/films").contentType(MediaType.APPLICATION_JSON).content(film))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.mpa.name").value("R"));
+        assertQueryCount(mockMvc, post("/films").contentType(MediaType.APPLICATION_JSON).content(film))
+                .isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testUpdateFilm() throws Exception {
+        String film = """
+                {"id": 1, "name": "Неприкасаемые", "duration": 112}
+                """;
+        mockMvc.perform(put("/films").contentType(MediaType.APPLICATION_JSON).content(film))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Неприкасаемые"));
+        assertQueryCount(mockMvc, put("/films").contentType(MediaType.APPLICATION_JSON).content(film))
+                .isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testAddLike() throws Exception {
+        assertQueryCount(mockMvc, put("/films/3/like/1")).isLessThanOrEqualTo(3);
+        mockMvc.perform(get("/users/1/likes/contains").param("filmIds", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.3").value(true));
+    }
+
+    @Test
+    public void testRemoveLike() throws Exception {
+        assertQueryCount(mockMvc, delete("/films/2/like/1")).isLessThanOrEqualTo(3);
+        mockMvc.perform(get("/users/1/likes/contains").param("filmIds", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.2").value(false));
+    }
+
+    @Test
+    public void testGetPopularFilms() throws Exception {
+        mockMvc.perform(get("/films/popular").param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        assertQueryCount(mockMvc, get("/films/popular")).isLessThanOrEqualTo(2);
+    }
+}
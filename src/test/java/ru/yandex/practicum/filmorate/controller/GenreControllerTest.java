@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.yandex.practicum.filmorate.controller.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class GenreControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testFindAllGenres() throws Exception {
+        mockMvc.perform(get("/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)));
+        assertQueryCount(mockMvc, get("/genres")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindGenreById() throws Exception {
+        mockMvc.perform(get("/genres/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Комедия"));
+        assertQueryCount(mockMvc, get("/genres/1")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindUnknownGenre() throws Exception {
+        mockMvc.perform(get("/genres/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testStorageCallIsTimedOnce() throws Exception {
+        mockMvc.perform(get("/genres/999"))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER,
+                        containsString("storage;dur=")))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER,
+                        containsString("\"1 calls\"")));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.yandex.practicum.filmorate.controller.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class MpaControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testFindAllMpa() throws Exception {
+        mockMvc.perform(get("/mpa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+        assertQueryCount(mockMvc, get("/mpa")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindMpaById() throws Exception {
+        mockMvc.perform(get("/mpa/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("G"));
+        assertQueryCount(mockMvc, get("/mpa/1")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindUnknownMpa() throws Exception {
+        mockMvc.perform(get("/mpa/999"))
+                .andExpect(status().isNotFound());
+    }
+}
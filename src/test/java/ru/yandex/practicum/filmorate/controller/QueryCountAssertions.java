@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.assertj.core.api.AbstractIntegerAssert;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryCountAssertions {
+    public static AbstractIntegerAssert<?> assertQueryCount(MockMvc mockMvc, MockHttpServletRequestBuilder request)
+            throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        MockHttpServletRequest servletRequest = result.getRequest();
+        MockHttpServletResponse response = result.getResponse();
+
+        assertThat(response.getStatus())
+                .as("Статус ответа %s %s: %s", servletRequest.getMethod(), servletRequest.getRequestURI(),
+                        response.getContentAsString())
+                .isLessThan(400);
+        String header = response.getHeader(ServerTimingFilter.QUERY_COUNT_HEADER);
+        assertThat(header).as("Заголовок %s", ServerTimingFilter.QUERY_COUNT_HEADER).isNotNull();
+        return assertThat(Integer.parseInt(header))
+                .as("SQL-запросов в %s %s", servletRequest.getMethod(), servletRequest.getRequestURI());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.storage.film.FilmLikeIndex;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.yandex.practicum.filmorate.controller.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Transactional
+public class UserControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FilmLikeIndex likeIndex;
+
+    @AfterEach
+    void invalidateLikeIndex() {
+        likeIndex.invalidate();
+    }
+
+    @Test
+    public void testFindAllUsers() throws Exception {
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+        assertQueryCount(mockMvc, get("/users")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindUsersByIds() throws Exception {
+        mockMvc.perform(get("/users").param("ids", "3,999,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].id").value(1));
+        assertQueryCount(mockMvc, get("/users").param("ids", "3,2,1")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindUserWithFields() throws Exception {
+        mockMvc.perform(get("/users/1").param("fields", "login"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.login").value("Green"))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(jsonPath("$.friends").doesNotExist());
+        mockMvc.perform(get("/users").param("ids", "1").param("fields", "friends"))
+                .andExpect(jsonPath("$[0].friends", hasSize(2)));
+        assertQueryCount(mockMvc, get("/users").param("fields", "name")).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindUserById() throws Exception {
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("Green"));
+        assertQueryCount(mockMvc, get("/users/1")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testCreateUser() throws Exception {
+        String user = """
+                {"email": "black@yandex.ru", "login": "Black", "name": "Black", "birthday": "1990-01-01"}
+                """;
+        assertQueryCount(mockMvc, post("/users").contentType(MediaType.APPLICATION_JSON).content(user))
+                .isLessThanOrEqualTo(1);
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(user))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testUpdateUser() throws Exception {
+        String user = """
+                {"id": 1, "name": "Grün"}
+                """;
+        mockMvc.perform(put("/users").contentType(MediaType.APPLICATION_JSON).content(user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Grün"));
+        assertQueryCount(mockMvc, put("/users").contentType(MediaType.APPLICATION_JSON).content(user))
+                .isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testUpdateUserWithTakenEmail() throws Exception {
+        String user = """
+                {"id": 1, "email": "yellow@yandex.ru"}
+                """;
+        mockMvc.perform(put("/users").contentType(MediaType.APPLICATION_JSON).content(user))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Этот имейл уже используется."));
+    }
+
+    @Test
+    public void testAddFriend() throws Exception {
+        assertQueryCount(mockMvc, put("/users/2/friends/3")).isLessThanOrEqualTo(3);
+        mockMvc.perform(get("/users/2/friends"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    public void testRemoveFriend() throws Exception {
+        assertQueryCount(mockMvc, delete("/users/1/friends/2")).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void testGetFriends() throws Exception {
+        mockMvc.perform(get("/users/1/friends"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        assertQueryCount(mockMvc, get("/users/1/friends")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testGetFriendsPage() throws Exception {
+        mockMvc.perform(get("/users/1").param("fields", "friendCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.friendCount").value(2))
+                .andExpect(jsonPath("$.friends").doesNotExist());
+        mockMvc.perform(get("/users/3/friends").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(1));
+        mockMvc.perform(get("/users/3/friends").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(2));
+        mockMvc.perform(get("/users/3/friends").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetCommonFriends() throws Exception {
+        mockMvc.perform(get("/users/1/friends/common/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(2));
+        assertQueryCount(mockMvc, get("/users/1/friends/common/3")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testFindLikedFilms() throws Exception {
+        mockMvc.perform(get("/users/1/likes/contains").param("filmIds", "1", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value(true))
+                .andExpect(jsonPath("$.3").value(false));
+        assertQueryCount(mockMvc, get("/users/1/likes/contains").param("filmIds", "1", "3"))
+                .isLessThanOrEqualTo(2);
+    }
+}
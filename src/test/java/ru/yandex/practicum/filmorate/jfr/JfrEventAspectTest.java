@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.genre.GenreStorage;
+import ru.yandex.practicum.filmorate.storage.genre.InMemoryGenreStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrEventAspectTest {
+    @Test
+    void testRecordsStorageCalls() throws Exception {
+        InMemoryGenreStorage target = new InMemoryGenreStorage();
+        List<Genre> genres = List.of(new Genre(1L, "Комедия"), new Genre(2L, "Драма"));
+        target.restore(genres);
+        target.setFilmGenres(10L, genres);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new JfrEventAspect());
+        GenreStorage storage = factory.getProxy();
+
+        Path file = Files.createTempFile("storage-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(StorageEvent.class);
+            recording.start();
+            storage.findGenresByFilmId(10L);
+            storage.findGenreById(3L);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getString("operation")).isEqualTo("GenreStorage.findGenresByFilmId");
+        assertThat(events.get(0).getLong("entityId")).isEqualTo(10L);
+        assertThat(events.get(0).getInt("rows")).isEqualTo(1);
+        assertThat(events.get(1).getLong("entityId")).isEqualTo(3L);
+        assertThat(events.get(1).getInt("rows")).isZero();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Sink;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class SamplingStrategyTest {
+    @Test
+    void testWritesOnlySampledErrorAndSlowExchanges() throws Exception {
+        HttpLoggingProperties properties = new HttpLoggingProperties();
+        properties.setSampleRate(0);
+        properties.getSampleRates().put("/films/{id}", 1.0);
+        SamplingStrategy strategy = new SamplingStrategy(properties);
+
+        assertThat(exchange(strategy, "/users/1", 200, Duration.ofMillis(1))).isFalse();
+        assertThat(exchange(strategy, "/films/1", 200, Duration.ofMillis(1))).isTrue();
+        assertThat(exchange(strategy, "/users/1", 404, Duration.ofMillis(1))).isTrue();
+        assertThat(exchange(strategy, "/users/1", 200, Duration.ofSeconds(1))).isTrue();
+        assertThat(LogSampling.isSampled()).isTrue();
+    }
+
+    @Test
+    void testFullModeWritesEverything() throws Exception {
+        HttpLoggingProperties properties = new HttpLoggingProperties();
+        properties.setMode(HttpLoggingProperties.Mode.FULL);
+        properties.setSampleRate(0);
+
+        assertThat(exchange(new SamplingStrategy(properties), "/users/1", 200, Duration.ofMillis(1))).isTrue();
+    }
+
+    private static boolean exchange(SamplingStrategy strategy, String path, int status, Duration duration)
+            throws Exception {
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.getPath()).thenReturn(path);
+        when(request.withBody()).thenReturn(request);
+        HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.withBody()).thenReturn(response);
+        when(response.withoutBody()).thenReturn(response);
+        Correlation correlation = mock(Correlation.class);
+        when(correlation.getDuration()).thenReturn(duration);
+        Sink sink = mock(Sink.class);
+
+        HttpRequest processed = strategy.process(request);
+        strategy.write(correlation, processed, strategy.process(processed, response), sink);
+        return mockingDetails(sink).getInvocations().stream()
+                .anyMatch(invocation -> invocation.getMethod().getName().equals("writeBoth"));
+    }
+}
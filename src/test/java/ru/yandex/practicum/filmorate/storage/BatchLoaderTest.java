@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.storage.batch.BatchLoader;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchLoaderTest {
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void testLookupsWaitingForRunningBatchAreMerged() throws Exception {
+        BatchProperties properties = new BatchProperties();
+        properties.setWindow(Duration.ofSeconds(5));
+        properties.setMaxSize(5);
+        BatchLoader<Long, String> loader = new BatchLoader<>(this::loadBlockingFirst, id -> Optional.empty(),
+                properties);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            Future<Optional<String>> first = executor.submit(() -> loader.load(1L));
+            awaitBatches(1);
+            List<Future<Optional<String>>> rest = new ArrayList<>();
+            for (long id = 2; id <= 6; id++) {
+                long key = id;
+                rest.add(executor.submit(() -> loader.load(key)));
+            }
+            awaitBatches(2);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).contains("film-1");
+            for (int i = 0; i < rest.size(); i++) {
+                assertThat(rest.get(i).get(5, TimeUnit.SECONDS)).contains("film-" + (i + 2));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder(2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void testCallersOfSameKeyGetOwnCopies() throws Exception {
+        BatchProperties properties = new BatchProperties();
+        properties.setWindow(Duration.ofSeconds(5));
+        properties.setMaxSize(2);
+        BatchLoader<Long, StringBuilder> loader = new BatchLoader<>(ids -> {
+            Map<Long, StringBuilder> result = new HashMap<>();
+            loadBlockingFirst(ids).forEach((id, name) -> result.put(id, new StringBuilder(name)));
+            return result;
+        }, id -> Optional.empty(), properties, StringBuilder::new);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Optional<StringBuilder>> first = executor.submit(() -> loader.load(1L));
+            awaitBatches(1);
+            Future<Optional<StringBuilder>> second = executor.submit(() -> loader.load(2L));
+            Future<Optional<StringBuilder>> third = executor.submit(() -> loader.load(2L));
+            awaitBatches(2);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isPresent();
+            StringBuilder secondValue = second.get(5, TimeUnit.SECONDS).orElseThrow();
+            StringBuilder thirdValue = third.get(5, TimeUnit.SECONDS).orElseThrow();
+            assertThat(secondValue).isNotSameAs(thirdValue);
+            secondValue.append("-changed");
+            assertThat(thirdValue.toString()).isEqualTo("film-2");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactly(2L);
+    }
+
+    @Test
+    void testMissingKeyIsEmpty() {
+        BatchLoader<Long, String> loader = new BatchLoader<>(ids -> Map.of(), id -> Optional.empty(),
+                new BatchProperties());
+
+        assertThat(loader.load(999L)).isEmpty();
+    }
+
+    @Test
+    void testTransactionBypassesBatching() {
+        BatchLoader<Long, String> loader = new BatchLoader<>(this::loadBlockingFirst, id -> Optional.of("single"),
+                new BatchProperties());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(loader.load(1L)).contains("single");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(batches).isEmpty();
+    }
+
+    private Map<Long, String> loadBlockingFirst(Collection<Long> ids) {
+        batches.add(List.copyOf(ids));
+        if (batches.size() == 1) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<Long, String> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, "film-" + id));
+        return result;
+    }
+
+    private void awaitBatches(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.mappers.UserRowMapper;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Без @JdbcTest: каждый поток пишет в своём соединении с автокоммитом, а тестовая транзакция этого бы не дала
+public class ConcurrentWritesTest {
+    private static final int THREADS = 8;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScripts("schema.sql", "data.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        database.shutdown();
+    }
+
+    @Test
+    void testConcurrentDuplicateLikesInsertOneRow() throws Exception {
+        FilmDbStorage filmStorage = new FilmDbStorage(jdbc, new FilmRowMapper(), new BatchProperties(),
+                new ChunkExecutor(1, 1));
+
+        long succeeded = runConcurrently(() -> {
+            filmStorage.addLike(1L, 2L);
+            return true;
+        });
+
+        assertThat(succeeded).isEqualTo(THREADS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM film_likes WHERE film_id = 1 AND user_id = 2",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentDuplicateFriendshipsInsertOneRow() throws Exception {
+        UserDbStorage userStorage = new UserDbStorage(jdbc, new UserRowMapper(), new BatchProperties(),
+                new ChunkExecutor(1, 1));
+
+        long added = runConcurrently(() -> userStorage.tryAddFriendship(2L, 3L));
+
+        assertThat(added).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM friends WHERE user_id = 2 AND friend_id = 3",
+                Integer.class)).isEqualTo(1);
+    }
+
+    private long runConcurrently(Callable<Boolean> write) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return write.call();
+            }));
+        }
+        start.countDown();
+
+        long added = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                added++;
+            }
+        }
+        return added;
+    }
+}
@@ -8,16 +8,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.Mpa;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
 import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
 import ru.yandex.practicum.filmorate.storage.genre.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.mappers.FilmRowMapper;
 
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -31,6 +36,7 @@ import static org.assertj.core.api.Assertions.*;
 public class FilmDbStorageTest {
     private final FilmDbStorage filmStorage;
     private final GenreDbStorage genreStorage;
+    private final JdbcTemplate jdbc;
 
     @Test
     public void testFindAllFilms() {
@@ -83,6 +89,33 @@ public class FilmDbStorageTest {
                 );
     }
 
+    @Test
+    public void testFindFilmsByIds() {
+        assertThat(filmStorage.findFilmsByIds(List.of(3L, 1L, 999L)))
+                .extracting(Film::getId)
+                .containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    public void testFindFilmsByIdsInChunks() {
+        BatchProperties properties = new BatchProperties();
+        properties.setChunkSize(1);
+        properties.setParallelChunks(true);
+        ChunkExecutor executor = new ChunkExecutor(2, 4);
+        FilmDbStorage chunkedStorage = new FilmDbStorage(jdbc, new FilmRowMapper(), properties, executor);
+
+        try {
+            assertThat(chunkedStorage.findFilmsByIds(List.of(3L, 1L, 999L)))
+                    .extracting(Film::getId)
+                    .containsExactlyInAnyOrder(1L, 3L);
+            assertThat(chunkedStorage.findLikesByFilmIds(List.of(1L, 3L)))
+                    .containsOnlyKeys(1L, 3L)
+                    .containsEntry(3L, Set.of(2L, 3L));
+        } finally {
+            executor.destroy();
+        }
+    }
+
     @Test
     public void testAddFilmGenres() {
         Film film = new Film();
@@ -158,6 +191,24 @@ public class FilmDbStorageTest {
                 .containsOnly(1L, 2L, 3L);
     }
 
+    @Test
+    public void testFindLikesByFilmIds() {
+        Map<Long, Set<Long>> likes = filmStorage.findLikesByFilmIds(List.of(1L, 3L, 99L));
+
+        assertThat(likes).hasSize(2)
+                .doesNotContainKey(99L);
+        assertThat(likes.get(1L)).containsOnly(1L);
+        assertThat(likes.get(3L)).containsOnly(2L, 3L);
+    }
+
+    @Test
+    public void testFindLikers() {
+        assertThat(filmStorage.findLikers(4L, 0, 2)).containsExactly(1L, 2L);
+        assertThat(filmStorage.findLikers(4L, 2, 2)).containsExactly(3L);
+        assertThat(filmStorage.findFilmById(4L))
+                .hasValueSatisfying(film -> assertThat(film.getLikeCount()).isEqualTo(3L));
+    }
+
     @Test
     public void testRemoveLike() {
         Film film = new Film();
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.dto.film.FilmDto;
+import ru.yandex.practicum.filmorate.dto.film.NewFilmRequest;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"filmorate.storage.type=memory", "filmorate.wal.enabled=false"})
+@AutoConfigureTestDatabase
+public class InMemoryStorageModeTest {
+    @Autowired
+    private FilmService filmService;
+    @Autowired
+    private FilmStorage filmStorage;
+
+    @Test
+    void testCreatedFilmKeepsGenresInFilmList() {
+        NewFilmRequest request = new NewFilmRequest();
+        request.setName("Зверополис");
+        request.setDescription("Мультфильм про крольчиху, которая хочет стать полицейским");
+        request.setReleaseDate(LocalDate.of(2016, 3, 3));
+        request.setDuration(109);
+        Mpa mpa = new Mpa();
+        mpa.setId(2L);
+        request.setMpa(mpa);
+        request.setGenres(new LinkedHashSet<>(List.of(new Genre(1L, null), new Genre(3L, null))));
+
+        FilmDto created = filmService.createFilm(request);
+
+        assertThat(created.getMpa().getName()).isEqualTo("PG");
+        FilmDto listed = filmService.findAllFilms().stream()
+                .filter(film -> film.getId().equals(created.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(listed.getGenres()).extracting(Genre::getName).containsExactlyInAnyOrder("Комедия", "Мультфильм");
+    }
+
+    @Test
+    void testReturnedFilmIsNotStorageState() {
+        Film film = new Film();
+        film.setName("Шоколад");
+        film.setDescription("Фильм о жизни кондитера");
+        film.setReleaseDate(LocalDate.of(2000, 12, 22));
+        film.setDuration(121);
+        Long id = filmStorage.createFilm(film).getId();
+
+        Film found = filmStorage.findFilmById(id).orElseThrow();
+        found.setName("Черновик");
+        found.getLikes().add(42L);
+
+        Film stored = filmStorage.findFilmById(id).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Шоколад");
+        assertThat(filmStorage.findAllLikes(stored)).isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.metrics.QueryNames;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryNamesTest {
+    @Test
+    void testResolvesNameFromLeadingComment() {
+        assertThat(QueryNames.resolve("/* FilmDbStorage.FIND_LIKES */ SELECT user_id FROM film_likes WHERE film_id = ?"))
+                .isEqualTo("FilmDbStorage.FIND_LIKES");
+        assertThat(QueryNames.resolve(String.format("/* FilmDbStorage.FIND_BY_IDS_PROJECTED */ SELECT %s FROM films f",
+                "f.film_id, f.name")))
+                .isEqualTo("FilmDbStorage.FIND_BY_IDS_PROJECTED");
+        assertThat(QueryNames.resolve("SELECT 1")).isEqualTo(QueryNames.UNKNOWN);
+        assertThat(QueryNames.resolve("/* unterminated SELECT 1")).isEqualTo(QueryNames.UNKNOWN);
+        assertThat(QueryNames.resolve(null)).isEqualTo(QueryNames.UNKNOWN);
+    }
+}
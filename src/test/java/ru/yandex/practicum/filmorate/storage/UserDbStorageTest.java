@@ -8,13 +8,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.ComponentScan;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserField;
 import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest
 @AutoConfigureTestDatabase
@@ -45,6 +49,34 @@ public class UserDbStorageTest {
                 );
     }
 
+    @Test
+    public void testFindUsersByIds() {
+        assertThat(userStorage.findUsersByIds(List.of(1L, 2L)))
+                .hasSize(2)
+                .anySatisfy(user -> {
+                    assertThat(user.getId()).isEqualTo(1L);
+                    assertThat(user.getFriendCount()).isEqualTo(2L);
+                    assertThat(user.getFriends()).isEmpty();
+                })
+                .anySatisfy(user -> {
+                    assertThat(user.getId()).isEqualTo(2L);
+                    assertThat(user.getFriendCount()).isEqualTo(1L);
+                });
+        assertThat(userStorage.findUsersByIds(List.of(3L), UserField.ALL))
+                .singleElement()
+                .satisfies(user -> assertThat(user.getFriends()).containsExactlyInAnyOrder(1L, 2L));
+    }
+
+    @Test
+    public void testFindFriendsPage() {
+        assertThat(userStorage.findFriendsByUserId(3L, 0, 1))
+                .extracting(User::getId)
+                .containsExactly(1L);
+        assertThat(userStorage.findFriendsByUserId(3L, 1, 10))
+                .extracting(User::getId)
+                .containsExactly(2L);
+    }
+
     @Test
     public void testCreateUser() {
         User newUser = new User();
@@ -58,6 +90,26 @@ public class UserDbStorageTest {
                 .hasFieldOrPropertyWithValue("id", 4L);
     }
 
+    @Test
+    public void testCreateUserWithTakenEmailOrLogin() {
+        User sameEmail = new User();
+        sameEmail.setEmail("green@yandex.ru");
+        sameEmail.setLogin("Green2");
+        sameEmail.setBirthday(LocalDate.of(1998, 8, 17));
+
+        User sameLogin = new User();
+        sameLogin.setEmail("green2@yandex.ru");
+        sameLogin.setLogin("Green");
+        sameLogin.setBirthday(LocalDate.of(1998, 8, 17));
+
+        assertThatThrownBy(() -> userStorage.createUser(sameEmail))
+                .isInstanceOf(DuplicatedDataException.class)
+                .hasMessage("Этот имейл уже используется.");
+        assertThatThrownBy(() -> userStorage.createUser(sameLogin))
+                .isInstanceOf(DuplicatedDataException.class)
+                .hasMessage("Этот логин уже используется.");
+    }
+
     @Test
     public void testUpdateUser() {
         User user = new User();
@@ -103,4 +155,9 @@ public class UserDbStorageTest {
                         assertThat(user).hasFieldOrPropertyWithValue("email", "green@yandex.ru")
                 );
     }
+
+    @Test
+    public void testFindUserByEmailNotFound() {
+        assertThat(userStorage.findUserByEmail("nobody@yandex.ru")).isEmpty();
+    }
 }
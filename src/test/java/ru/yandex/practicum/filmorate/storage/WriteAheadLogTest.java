@@ -0,0 +1,186 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.mapper.UserMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshot;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.FsyncPolicy;
+import ru.yandex.practicum.filmorate.storage.wal.MappedDataInput;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+import ru.yandex.practicum.filmorate.storage.wal.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    private WalProperties properties;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new WalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setFsync(FsyncPolicy.ALWAYS);
+    }
+
+    @Test
+    void testRecoverUsersFromLog() throws IOException {
+        InMemoryUserStorage storage = openUserStorage();
+        storage.createUser(user("green@yandex.ru", "Green"));
+        storage.createUser(user("yellow@yandex.ru", "Yellow"));
+        storage.tryAddFriendship(1L, 2L);
+        storage.close();
+
+        InMemoryUserStorage recovered = openUserStorage();
+
+        assertThat(recovered.findAllUsers()).hasSize(2);
+        assertThat(recovered.findUserById(1L))
+                .isPresent()
+                .hasValueSatisfying(user -> assertThat(user.getFriends()).containsOnly(2L));
+        recovered.close();
+    }
+
+    @Test
+    void testRecoverUsersFromSnapshotAndLogTail() throws IOException {
+        properties.setSnapshotEvery(2);
+        InMemoryUserStorage storage = openUserStorage();
+        storage.createUser(user("green@yandex.ru", "Green"));
+        storage.createUser(user("yellow@yandex.ru", "Yellow"));
+        storage.createUser(user("white@yandex.ru", "White"));
+        storage.close();
+
+        assertThat(directory.resolve("users.snapshot")).exists();
+
+        InMemoryUserStorage recovered = openUserStorage();
+
+        assertThat(recovered.findAllUsers())
+                .extracting(User::getLogin)
+                .containsExactlyInAnyOrder("Green", "Yellow", "White");
+        recovered.close();
+    }
+
+    @Test
+    void testLogIsReplayedOverCatalogBaseline() throws IOException {
+        User green = user("green@yandex.ru", "Green");
+        green.setId(1L);
+        User yellow = user("yellow@yandex.ru", "Yellow");
+        yellow.setId(2L);
+        List<User> baseline = List.of(green, yellow);
+
+        InMemoryUserStorage storage = openUserStorage();
+        assertThat(storage.restore(baseline)).isTrue();
+        storage.tryAddFriendship(1L, 2L);
+        storage.createUser(user("white@yandex.ru", "White"));
+        storage.close();
+
+        assertThat(directory.resolve("users.snapshot")).doesNotExist();
+
+        InMemoryUserStorage recovered = openUserStorage();
+        assertThat(recovered.restore(List.of(UserMapper.copyUser(green), UserMapper.copyUser(yellow)))).isTrue();
+
+        assertThat(recovered.findAllUsers())
+                .extracting(User::getLogin)
+                .containsExactlyInAnyOrder("Green", "Yellow", "White");
+        assertThat(recovered.findUserById(1L))
+                .hasValueSatisfying(user -> assertThat(user.getFriends()).containsOnly(2L));
+        recovered.snapshot();
+        assertThat(recovered.restore(List.of())).isFalse();
+        assertThat(recovered.findAllUsers()).hasSize(3);
+        recovered.close();
+    }
+
+    @Test
+    void testTornTailIsDiscarded() throws IOException {
+        Path file = directory.resolve("test.wal");
+        try (WriteAheadLog wal = new WriteAheadLog(file, FsyncPolicy.ALWAYS, 1, Duration.ofSeconds(1))) {
+            wal.append(new byte[]{1, 2, 3});
+            wal.append(new byte[]{4, 5, 6});
+        }
+
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 2);
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(file, FsyncPolicy.ALWAYS, 1, Duration.ofSeconds(1))) {
+            long lastLsn = wal.replay(0, (lsn, in) -> replayed.add(lsn));
+
+            assertThat(lastLsn).isEqualTo(1L);
+            assertThat(wal.append(new byte[]{7})).isEqualTo(2L);
+        }
+        assertThat(replayed).containsExactly(1L);
+    }
+
+    @Test
+    void testCatalogSnapshotRoundTrip() throws IOException {
+        Film film = new Film();
+        film.setId(1L);
+        film.setName("1+1");
+        film.setDescription("Фильм о дружбе совершенно разных людей");
+        film.setReleaseDate(LocalDate.of(2012, 4, 26));
+        film.setDuration(114);
+        film.getGenres().add(new Genre(1L, "Комедия"));
+        film.getLikes().addAll(List.of(1L, 2L));
+
+        User user = user("green@yandex.ru", "Green");
+        user.setId(1L);
+        user.getFriends().add(2L);
+
+        CatalogSnapshot catalog = new CatalogSnapshot();
+        catalog.getGenres().add(new Genre(1L, "Комедия"));
+        catalog.getUsers().add(user);
+        catalog.getFilms().add(film);
+        Path file = directory.resolve("catalog.snapshot");
+        catalog.write(file);
+
+        CatalogSnapshot restored = CatalogSnapshot.read(file);
+
+        assertThat(restored.getFilms()).containsExactly(film);
+        assertThat(restored.getUsers()).containsExactly(user);
+        assertThat(restored.getGenres()).containsExactly(new Genre(1L, "Комедия"));
+    }
+
+    @Test
+    void testMappedDataInputReadLine() {
+        MappedDataInput in = new MappedDataInput(ByteBuffer.wrap("first\r\nsecond\rthird\n".getBytes()));
+
+        assertThat(in.readLine()).isEqualTo("first");
+        assertThat(in.readLine()).isEqualTo("second");
+        assertThat(in.readLine()).isEqualTo("third");
+        assertThat(in.readLine()).isNull();
+    }
+
+    private InMemoryUserStorage openUserStorage() {
+        InMemoryUserStorage storage = new InMemoryUserStorage(properties);
+        storage.recover();
+        return storage;
+    }
+
+    private static User user(String email, String login) {
+        User user = new User();
+        user.setEmail(email);
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Types;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedJdbcTemplateTest {
+    @Test
+    void testArrayArgsAreFormattedAndTruncated() {
+        Long[] ids = LongStream.rangeClosed(1, 25).boxed().toArray(Long[]::new);
+
+        String params = InstrumentedJdbcTemplate.formatArgs(new Object[]{
+                "Green", new long[]{1, 2}, new SqlParameterValue(Types.ARRAY, ids), null});
+
+        assertThat(params).isEqualTo("[Green, [1, 2], [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, "
+                + "19, 20, ... ещё 5], null]");
+    }
+
+    @Test
+    void testMissingArgsAreEmpty() {
+        assertThat(InstrumentedJdbcTemplate.formatArgs(null)).isEqualTo("[]");
+    }
+}
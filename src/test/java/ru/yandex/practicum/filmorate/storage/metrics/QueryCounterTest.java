@@ -0,0 +1,94 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.batch.BatchLoader;
+import ru.yandex.practicum.filmorate.storage.batch.BatchProperties;
+import ru.yandex.practicum.filmorate.storage.batch.ChunkExecutor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryCounterTest {
+    @Test
+    void testChunkTasksCountForCaller() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(2, 4);
+        try {
+            QueryCounter.start();
+            executor.supply(() -> {
+                QueryCounter.record(1_000);
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+            QueryCounter.record(1_000);
+
+            QueryCounter.Counts counts = QueryCounter.stop();
+            assertThat(counts.getStatements()).isEqualTo(2);
+            assertThat(counts.getNanos()).isEqualTo(2_000);
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void testBatchQueryCountsForEveryCaller() throws Exception {
+        BatchProperties properties = new BatchProperties();
+        properties.setWindow(Duration.ofSeconds(5));
+        properties.setMaxSize(5);
+        List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Long, String> loader = new BatchLoader<>(ids -> {
+            batches.add(List.copyOf(ids));
+            if (batches.size() == 1) {
+                firstStarted.countDown();
+                await(release);
+            }
+            QueryCounter.record(1_000);
+            Map<Long, String> result = new HashMap<>();
+            ids.forEach(id -> result.put(id, "film-" + id));
+            return result;
+        }, id -> Optional.empty(), properties);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<QueryCounter.Counts> first = executor.submit(() -> loadCounting(loader, 1L));
+            assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<QueryCounter.Counts> second = executor.submit(() -> loadCounting(loader, 2L));
+            Future<QueryCounter.Counts> third = executor.submit(() -> loadCounting(loader, 3L));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getStatements()).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS).getStatements()).isEqualTo(1);
+            assertThat(third.get(5, TimeUnit.SECONDS).getStatements()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    private static QueryCounter.Counts loadCounting(BatchLoader<Long, String> loader, Long id) {
+        QueryCounter.start();
+        loader.load(id);
+        return QueryCounter.stop();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingsTest {
+    @Test
+    void testNestedPhasesExcludeChildTime() throws InterruptedException {
+        RequestTimings.start();
+        RequestTimings.enter(Phase.SERVICE);
+        Thread.sleep(20);
+        RequestTimings.enter(Phase.STORAGE);
+        Thread.sleep(30);
+        RequestTimings.exit();
+        RequestTimings.enter(Phase.STORAGE);
+        RequestTimings.exit();
+        RequestTimings.exit();
+        RequestTimings timings = RequestTimings.finish();
+
+        assertThat(timings.getCalls(Phase.SERVICE)).isEqualTo(1);
+        assertThat(timings.getCalls(Phase.STORAGE)).isEqualTo(2);
+        assertThat(timings.getNanos(Phase.STORAGE)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(timings.getNanos(Phase.SERVICE)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(timings.getNanos(Phase.SERVICE) + timings.getNanos(Phase.STORAGE))
+                .isLessThanOrEqualTo(timings.getTotalNanos());
+    }
+
+    @Test
+    void testIgnoresCallsOutsideRequest() {
+        RequestTimings.start();
+        RequestTimings.finish();
+        RequestTimings.enter(Phase.MAPPING);
+        RequestTimings.exit();
+
+        assertThat(RequestTimings.finish().getCalls(Phase.MAPPING)).isZero();
+    }
+}
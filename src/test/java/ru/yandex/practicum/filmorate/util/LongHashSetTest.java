@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongHashSetTest {
+    @Test
+    void testBehavesLikeHashSet() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(set).hasSize(expected.size());
+        assertThat(set).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(set).isEqualTo(expected);
+        assertThat(set.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    void testZeroAndRemoveIf() {
+        LongHashSet set = new LongHashSet();
+        set.add(0L);
+        set.add(1L);
+        set.add(2L);
+
+        set.removeIf(value -> value % 2 == 0);
+
+        assertThat(set).containsExactly(1L);
+    }
+
+    @Test
+    void testSortedLongArraySet() {
+        SortedLongArraySet set = SortedLongArraySet.of(5, 3, 3, 1);
+        set.add(4L);
+        set.remove(3L);
+
+        assertThat(set).containsExactly(1L, 4L, 5L);
+        assertThat(set.contains(4L)).isTrue();
+        assertThat(set.contains(3L)).isFalse();
+    }
+
+    @Test
+    void testJsonSerializationIsCompatible() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertThat(mapper.writeValueAsString(SortedLongArraySet.of(2, 1)))
+                .isEqualTo(mapper.writeValueAsString(new TreeSet<>(Set.of(1L, 2L))));
+        assertThat(mapper.readTree(mapper.writeValueAsString(new LongHashSet(Set.of(7L, 8L)))))
+                .containsExactlyInAnyOrder(mapper.readTree("7"), mapper.readTree("8"));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RoaringBitmapTest {
+    @Test
+    void testBehavesLikeHashSet() {
+        Random random = new Random(7);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(300_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(bitmap.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(bitmap.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(bitmap.getCardinality()).isEqualTo(expected.size());
+        for (long value = 0; value < 300_000; value++) {
+            assertThat(bitmap.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    @Test
+    void testConvertsDenseContainerBack() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long value = 0; value < 10_000; value++) {
+            bitmap.add(value);
+        }
+        for (long value = 0; value < 10_000; value += 2) {
+            bitmap.remove(value);
+        }
+
+        assertThat(bitmap.getCardinality()).isEqualTo(5_000);
+        assertThat(bitmap.contains(9_999)).isTrue();
+        assertThat(bitmap.contains(9_998)).isFalse();
+
+        for (long value = 1; value < 10_000; value += 2) {
+            bitmap.remove(value);
+        }
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRejectsOutOfRangeIds() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.remove(1L << 40)).isFalse();
+        assertThatThrownBy(() -> bitmap.add(1L << 40)).isInstanceOf(IllegalArgumentException.class);
+    }
+}